@@ -0,0 +1,34 @@
+package com.nextstep.recommendations.controllers;
+
+import com.nextstep.recommendations.dto.CohortSummaryDTO;
+import com.nextstep.recommendations.service.CohortAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics")
+@ConditionalOnProperty(name = "analytics.enabled", havingValue = "true")
+public class AnalyticsController {
+
+    private final CohortAnalyticsService cohortAnalyticsService;
+
+    @Autowired
+    public AnalyticsController(CohortAnalyticsService cohortAnalyticsService) {
+        this.cohortAnalyticsService = cohortAnalyticsService;
+    }
+
+    @GetMapping("/cohorts")
+    public ResponseEntity<List<CohortSummaryDTO>> getCohorts() {
+        return ResponseEntity.ok(cohortAnalyticsService.cohorts());
+    }
+
+    @GetMapping("/cohort")
+    public ResponseEntity<CohortSummaryDTO> getCohort(@RequestParam(required = false) Integer educationLevel,
+                                                      @RequestParam(required = false) Integer alStream) {
+        return ResponseEntity.of(cohortAnalyticsService.cohort(educationLevel, alStream));
+    }
+}
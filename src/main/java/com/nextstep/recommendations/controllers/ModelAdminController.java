@@ -0,0 +1,61 @@
+package com.nextstep.recommendations.controllers;
+
+import com.nextstep.recommendations.dto.TrainingJobDTO;
+import com.nextstep.recommendations.service.TrainingJobs;
+import com.nextstep.recommendations.utils.Predictor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+// Administrative endpoints are off unless model.admin.enabled is set, since they can retrain and swap the served model
+@RestController
+@RequestMapping("/admin/model")
+@ConditionalOnProperty(name = "model.admin.enabled", havingValue = "true")
+public class ModelAdminController {
+
+    private final Predictor predictor;
+    private final TrainingJobs trainingJobs;
+
+    @Autowired
+    public ModelAdminController(Predictor predictor, TrainingJobs trainingJobs) {
+        this.predictor = predictor;
+        this.trainingJobs = trainingJobs;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, String>> getModel() {
+        return ResponseEntity.ok(Map.of("version", predictor.getModelVersion()));
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, String>> reloadModel() {
+        // Loading and warming happen on the reload thread; requests keep scoring on the old model meanwhile
+        String previous = predictor.getModelVersion();
+        String version = predictor.reload().join();
+        return ResponseEntity.ok(Map.of("previousVersion", previous, "version", version));
+    }
+
+    @PostMapping("/train")
+    public ResponseEntity<TrainingJobDTO> trainModel(@RequestParam(defaultValue = "career_prediction") String target,
+                                                     @RequestParam(defaultValue = "false") boolean publish) {
+        TrainingJobDTO job;
+        try {
+            job = trainingJobs.submit(target, publish);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return ResponseEntity.accepted().location(URI.create("/admin/model/train/" + job.getId())).body(job);
+    }
+
+    @GetMapping("/train/{id}")
+    public ResponseEntity<TrainingJobDTO> getTrainingJob(@PathVariable UUID id) {
+        return ResponseEntity.of(trainingJobs.find(id));
+    }
+}
@@ -1,27 +1,75 @@
 package com.nextstep.recommendations.controllers;
 
+import com.nextstep.recommendations.dto.BatchPredictionResponseDTO;
+import com.nextstep.recommendations.dto.SimilarProfileDTO;
 import com.nextstep.recommendations.dto.StudentProfileDTO;
 import com.nextstep.recommendations.service.PredictionService;
+import com.nextstep.recommendations.service.StreamingPredictionService;
+import com.nextstep.recommendations.utils.Scorer;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/predictions")
 public class PredictionController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_SIMILAR = 100;
+
     private final PredictionService predictionService;
+    private final StreamingPredictionService streamingPredictionService;
 
     @Autowired
-    public PredictionController(PredictionService predictionService) {
+    public PredictionController(PredictionService predictionService, StreamingPredictionService streamingPredictionService) {
         this.predictionService = predictionService;
+        this.streamingPredictionService = streamingPredictionService;
     }
 
     @PostMapping("/career-prediction")
-    public ResponseEntity<StudentProfileDTO> updateStudentProfile(@RequestHeader("UUID") UUID userId, @Valid @RequestBody StudentProfileDTO studentProfileDTO) throws Exception {
-        return ResponseEntity.ok(predictionService.updateStudentProfile(userId, studentProfileDTO));
+    public ResponseEntity<StudentProfileDTO> updateStudentProfile(@RequestHeader("UUID") UUID userId, @Valid @RequestBody StudentProfileDTO studentProfileDTO,
+                                                                  @RequestParam(name = "scorer", required = false) String scorer) throws Exception {
+        return ResponseEntity.ok(predictionService.updateStudentProfile(userId, studentProfileDTO, scorer(scorer)));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StudentProfileDTO> getStudentProfile(@PathVariable UUID id) {
+        return ResponseEntity.of(predictionService.findStudentProfile(id));
+    }
+
+    // Anonymized peers with the nearest results, when similarity search is enabled
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarProfileDTO>> getSimilarProfiles(@PathVariable UUID id, @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.of(predictionService.findSimilarProfiles(id, Math.max(1, Math.min(k, MAX_SIMILAR))));
+    }
+
+    @PostMapping("/career-prediction/batch")
+    public ResponseEntity<BatchPredictionResponseDTO> updateStudentProfiles(@RequestBody List<StudentProfileDTO> studentProfileDTOs,
+                                                                            @RequestParam(name = "scorer", required = false) String scorer) {
+        return ResponseEntity.ok(predictionService.updateStudentProfiles(studentProfileDTOs, scorer(scorer)));
+    }
+
+    @PostMapping(value = "/stream", consumes = NDJSON, produces = NDJSON)
+    public void streamStudentProfiles(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        streamingPredictionService.scoreStream(body, response.getOutputStream());
+    }
+
+    // A misspelt scorer is the client's mistake, so it is answered with 400 rather than a server error
+    private static Scorer scorer(String value) {
+        try {
+            return Scorer.fromParameter(value);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.nextstep.recommendations.controllers;
+
+import com.nextstep.recommendations.dto.StudentProfileDTO;
+import com.nextstep.recommendations.utils.PredictionMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+// Times JSON binding of prediction request bodies as the binding stage; the model is not known yet, and a batch body
+// is timed as a whole
+@ControllerAdvice(assignableTypes = PredictionController.class)
+public class RequestBindingMetrics extends RequestBodyAdviceAdapter {
+    private static final String START = RequestBindingMetrics.class.getName() + ".start";
+
+    private final PredictionMetrics predictionMetrics;
+
+    @Autowired
+    public RequestBindingMetrics(PredictionMetrics predictionMetrics) {
+        this.predictionMetrics = predictionMetrics;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestContextHolder.currentRequestAttributes().setAttribute(START, System.nanoTime(), RequestAttributes.SCOPE_REQUEST);
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        Object start = RequestContextHolder.currentRequestAttributes().getAttribute(START, RequestAttributes.SCOPE_REQUEST);
+        if (start instanceof Long startNanos) {
+            String educationLevel = body instanceof StudentProfileDTO studentProfileDTO
+                    ? PredictionMetrics.educationLevelTag(studentProfileDTO.getEducationLevel())
+                    : PredictionMetrics.ALL;
+            predictionMetrics.record(PredictionMetrics.Stage.BINDING, educationLevel, PredictionMetrics.NONE,
+                    System.nanoTime() - startNanos);
+        }
+        return body;
+    }
+}
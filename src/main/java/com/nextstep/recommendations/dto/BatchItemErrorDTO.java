@@ -0,0 +1,42 @@
+package com.nextstep.recommendations.dto;
+
+import java.util.UUID;
+
+public class BatchItemErrorDTO {
+    private int index;
+    private UUID id;
+    private String message;
+
+    public BatchItemErrorDTO() {
+    }
+
+    public BatchItemErrorDTO(int index, UUID id, String message) {
+        this.index = index;
+        this.id = id;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,25 @@
+package com.nextstep.recommendations.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchPredictionResponseDTO {
+    private List<StudentProfileDTO> results = new ArrayList<>();
+    private List<BatchItemErrorDTO> errors = new ArrayList<>();
+
+    public List<StudentProfileDTO> getResults() {
+        return results;
+    }
+
+    public void setResults(List<StudentProfileDTO> results) {
+        this.results = results;
+    }
+
+    public List<BatchItemErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BatchItemErrorDTO> errors) {
+        this.errors = errors;
+    }
+}
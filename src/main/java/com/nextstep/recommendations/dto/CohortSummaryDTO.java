@@ -0,0 +1,52 @@
+package com.nextstep.recommendations.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class CohortSummaryDTO {
+    private Integer educationLevel;
+    private Integer alStream;
+    private long profiles;
+    private Map<String, Double> averageCareerProbabilities;
+    private LocalDateTime refreshedAt;
+
+    public Integer getEducationLevel() {
+        return educationLevel;
+    }
+
+    public void setEducationLevel(Integer educationLevel) {
+        this.educationLevel = educationLevel;
+    }
+
+    public Integer getAlStream() {
+        return alStream;
+    }
+
+    public void setAlStream(Integer alStream) {
+        this.alStream = alStream;
+    }
+
+    public long getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(long profiles) {
+        this.profiles = profiles;
+    }
+
+    public Map<String, Double> getAverageCareerProbabilities() {
+        return averageCareerProbabilities;
+    }
+
+    public void setAverageCareerProbabilities(Map<String, Double> averageCareerProbabilities) {
+        this.averageCareerProbabilities = averageCareerProbabilities;
+    }
+
+    public LocalDateTime getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public void setRefreshedAt(LocalDateTime refreshedAt) {
+        this.refreshedAt = refreshedAt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.nextstep.recommendations.dto;
+
+public class RankedCareerDTO {
+    private String career;
+    private double probability;
+    private int rank;
+
+    public RankedCareerDTO() {
+    }
+
+    public RankedCareerDTO(String career, double probability, int rank) {
+        this.career = career;
+        this.probability = probability;
+        this.rank = rank;
+    }
+
+    public String getCareer() {
+        return career;
+    }
+
+    public void setCareer(String career) {
+        this.career = career;
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    public void setProbability(double probability) {
+        this.probability = probability;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+}
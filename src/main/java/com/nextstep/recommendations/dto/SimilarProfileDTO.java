@@ -0,0 +1,83 @@
+package com.nextstep.recommendations.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+public class SimilarProfileDTO {
+    private double distance;
+    private int educationLevel;
+    private Map<String, Double> olResults;
+    private Integer alStream;
+    private Map<String, Double> alResults;
+    private Double gpa;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Double> careerProbabilities;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<RankedCareerDTO> topCareers;
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    public int getEducationLevel() {
+        return educationLevel;
+    }
+
+    public void setEducationLevel(int educationLevel) {
+        this.educationLevel = educationLevel;
+    }
+
+    public Map<String, Double> getOlResults() {
+        return olResults;
+    }
+
+    public void setOlResults(Map<String, Double> olResults) {
+        this.olResults = olResults;
+    }
+
+    public Integer getAlStream() {
+        return alStream;
+    }
+
+    public void setAlStream(Integer alStream) {
+        this.alStream = alStream;
+    }
+
+    public Map<String, Double> getAlResults() {
+        return alResults;
+    }
+
+    public void setAlResults(Map<String, Double> alResults) {
+        this.alResults = alResults;
+    }
+
+    public Double getGpa() {
+        return gpa;
+    }
+
+    public void setGpa(Double gpa) {
+        this.gpa = gpa;
+    }
+
+    public Map<String, Double> getCareerProbabilities() {
+        return careerProbabilities;
+    }
+
+    public void setCareerProbabilities(Map<String, Double> careerProbabilities) {
+        this.careerProbabilities = careerProbabilities;
+    }
+
+    public List<RankedCareerDTO> getTopCareers() {
+        return topCareers;
+    }
+
+    public void setTopCareers(List<RankedCareerDTO> topCareers) {
+        this.topCareers = topCareers;
+    }
+}
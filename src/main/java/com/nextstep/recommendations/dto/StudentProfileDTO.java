@@ -1,5 +1,8 @@
 package com.nextstep.recommendations.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -9,8 +12,13 @@ public class StudentProfileDTO {
     private Map<String, Double> olResults;
     private Integer alStream;
     private Map<String, Double> alResults;
+    // Top-K responses carry only the ranked careers
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private Map<String, Double> careerProbabilities;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<RankedCareerDTO> topCareers;
     private Double gpa;
+    private String modelVersion;
 
     public UUID getId() {
         return id;
@@ -60,6 +68,14 @@ public class StudentProfileDTO {
         this.careerProbabilities = careerProbabilities;
     }
 
+    public List<RankedCareerDTO> getTopCareers() {
+        return topCareers;
+    }
+
+    public void setTopCareers(List<RankedCareerDTO> topCareers) {
+        this.topCareers = topCareers;
+    }
+
     public Double getGpa() {
         return gpa;
     }
@@ -67,4 +83,12 @@ public class StudentProfileDTO {
     public void setGpa(Double gpa) {
         this.gpa = gpa;
     }
+
+    public String getModelVersion() {
+        return modelVersion;
+    }
+
+    public void setModelVersion(String modelVersion) {
+        this.modelVersion = modelVersion;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.nextstep.recommendations.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class TrainingJobDTO {
+    public enum Status { RUNNING, SUCCEEDED, FAILED }
+
+    private UUID id;
+    private String target;
+    private boolean publish;
+    private Status status;
+    private LocalDateTime submittedAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime finishedAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TrainingReportDTO report;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public boolean isPublish() {
+        return publish;
+    }
+
+    public void setPublish(boolean publish) {
+        this.publish = publish;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public TrainingReportDTO getReport() {
+        return report;
+    }
+
+    public void setReport(TrainingReportDTO report) {
+        this.report = report;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
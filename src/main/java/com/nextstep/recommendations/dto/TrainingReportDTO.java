@@ -0,0 +1,133 @@
+package com.nextstep.recommendations.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TrainingReportDTO {
+    private String target;
+    private int version;
+    private String modelFile;
+    private String classifier;
+    private int instances;
+    private int folds;
+    private int parallelism;
+    private double accuracy;
+    private double kappa;
+    private double weightedFMeasure;
+    private double weightedAreaUnderROC;
+    private Map<String, Double> fMeasureByCareer = new LinkedHashMap<>();
+    private long trainingMillis;
+    private boolean published;
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public String getModelFile() {
+        return modelFile;
+    }
+
+    public void setModelFile(String modelFile) {
+        this.modelFile = modelFile;
+    }
+
+    public String getClassifier() {
+        return classifier;
+    }
+
+    public void setClassifier(String classifier) {
+        this.classifier = classifier;
+    }
+
+    public int getInstances() {
+        return instances;
+    }
+
+    public void setInstances(int instances) {
+        this.instances = instances;
+    }
+
+    public int getFolds() {
+        return folds;
+    }
+
+    public void setFolds(int folds) {
+        this.folds = folds;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    public void setAccuracy(double accuracy) {
+        this.accuracy = accuracy;
+    }
+
+    public double getKappa() {
+        return kappa;
+    }
+
+    public void setKappa(double kappa) {
+        this.kappa = kappa;
+    }
+
+    public double getWeightedFMeasure() {
+        return weightedFMeasure;
+    }
+
+    public void setWeightedFMeasure(double weightedFMeasure) {
+        this.weightedFMeasure = weightedFMeasure;
+    }
+
+    public double getWeightedAreaUnderROC() {
+        return weightedAreaUnderROC;
+    }
+
+    public void setWeightedAreaUnderROC(double weightedAreaUnderROC) {
+        this.weightedAreaUnderROC = weightedAreaUnderROC;
+    }
+
+    public Map<String, Double> getFMeasureByCareer() {
+        return fMeasureByCareer;
+    }
+
+    public void setFMeasureByCareer(Map<String, Double> fMeasureByCareer) {
+        this.fMeasureByCareer = fMeasureByCareer;
+    }
+
+    public long getTrainingMillis() {
+        return trainingMillis;
+    }
+
+    public void setTrainingMillis(long trainingMillis) {
+        this.trainingMillis = trainingMillis;
+    }
+
+    public boolean isPublished() {
+        return published;
+    }
+
+    public void setPublished(boolean published) {
+        this.published = published;
+    }
+}
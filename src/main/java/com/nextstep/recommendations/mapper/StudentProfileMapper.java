@@ -1,7 +1,13 @@
 package com.nextstep.recommendations.mapper;
 
+import com.nextstep.recommendations.dto.RankedCareerDTO;
 import com.nextstep.recommendations.dto.StudentProfileDTO;
 import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.utils.CareerRanking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 public class StudentProfileMapper {
 
@@ -22,11 +28,17 @@ public class StudentProfileMapper {
         studentProfile.setAlResults(studentProfileDTO.getAlResults());
         studentProfile.setCareerProbabilities(studentProfileDTO.getCareerProbabilities());
         studentProfile.setGpa(studentProfileDTO.getGpa());
+        studentProfile.setModelVersion(studentProfileDTO.getModelVersion());
 
         return studentProfile;
     }
 
     public StudentProfileDTO toDTO(StudentProfile studentProfile) {
+        return toDTO(studentProfile, 0);
+    }
+
+    // With topK above zero the probabilities map is replaced by the K most probable careers as a ranked list
+    public StudentProfileDTO toDTO(StudentProfile studentProfile, int topK) {
         if (studentProfile == null) {
             return null;
         }
@@ -37,9 +49,32 @@ public class StudentProfileMapper {
         studentProfileDTO.setOlResults(studentProfile.getOlResults());
         studentProfileDTO.setAlStream(studentProfile.getAlStream());
         studentProfileDTO.setAlResults(studentProfile.getAlResults());
-        studentProfileDTO.setCareerProbabilities(studentProfile.getCareerProbabilities());
+        if (topK > 0 && studentProfile.getCareerProbabilities() != null) {
+            studentProfileDTO.setTopCareers(topCareers(studentProfile.getCareerProbabilities(), topK));
+        } else {
+            studentProfileDTO.setCareerProbabilities(studentProfile.getCareerProbabilities());
+        }
         studentProfileDTO.setGpa(studentProfile.getGpa());
+        studentProfileDTO.setModelVersion(studentProfile.getModelVersion());
 
         return studentProfileDTO;
     }
-}
\ No newline at end of file
+
+    private static List<RankedCareerDTO> topCareers(Map<String, Double> careerProbabilities, int topK) {
+        String[] careerNames = new String[careerProbabilities.size()];
+        double[] probabilities = new double[careerNames.length];
+        int i = 0;
+        for (Map.Entry<String, Double> entry : careerProbabilities.entrySet()) {
+            careerNames[i] = entry.getKey();
+            probabilities[i++] = entry.getValue();
+        }
+
+        int[] order = new int[probabilities.length];
+        int ranked = CareerRanking.rank(probabilities, order, topK);
+        List<RankedCareerDTO> topCareers = new ArrayList<>(ranked);
+        for (int rank = 0; rank < ranked; rank++) {
+            topCareers.add(new RankedCareerDTO(careerNames[order[rank]], probabilities[order[rank]], rank + 1));
+        }
+        return topCareers;
+    }
+}
@@ -0,0 +1,91 @@
+package com.nextstep.recommendations.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Entity
+@Table(name = "student_profiles_compact", indexes = @Index(name = "idx_student_profiles_compact_updated_at", columnList = "updated_at, id"))
+public class CompactStudentProfile {
+    @Id
+    private UUID id;
+
+    @Column(name = "education_level")
+    private int educationLevel;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "ol_results", columnDefinition = "jsonb")
+    private Map<String, Double> olResults;
+
+    @Column(name = "al_stream")
+    private Integer alStream;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "al_results", columnDefinition = "jsonb")
+    private Map<String, Double> alResults;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "career_probabilities", columnDefinition = "jsonb")
+    private Map<String, Double> careerProbabilities;
+
+    @Column(name = "gpa")
+    private Double gpa;
+
+    @Column(name = "model_version")
+    private String modelVersion;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private java.time.LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private java.time.LocalDateTime updatedAt;
+
+    public StudentProfile toStudentProfile() {
+        StudentProfile studentProfile = new StudentProfile();
+        studentProfile.setId(id);
+        studentProfile.setEducationLevel(educationLevel);
+        studentProfile.setOlResults(olResults);
+        studentProfile.setAlStream(alStream);
+        studentProfile.setAlResults(alResults);
+        studentProfile.setCareerProbabilities(careerProbabilities);
+        studentProfile.setGpa(gpa);
+        studentProfile.setModelVersion(modelVersion);
+        studentProfile.setUpdatedAt(updatedAt);
+        return studentProfile;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public int getEducationLevel() {
+        return educationLevel;
+    }
+
+    public Map<String, Double> getOlResults() {
+        return olResults;
+    }
+
+    public Integer getAlStream() {
+        return alStream;
+    }
+
+    public Map<String, Double> getAlResults() {
+        return alResults;
+    }
+
+    public Map<String, Double> getCareerProbabilities() {
+        return careerProbabilities;
+    }
+
+    public Double getGpa() {
+        return gpa;
+    }
+
+    public String getModelVersion() {
+        return modelVersion;
+    }
+}
@@ -0,0 +1,86 @@
+package com.nextstep.recommendations.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "model_registry",
+        indexes = @Index(name = "idx_model_registry_stream_version", columnList = "stream_id, version"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_model_registry_name_version", columnNames = {"name", "version"}))
+public class ModelRegistry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The training target: career_prediction, ol, uni or stream_<id>
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "stream_id")
+    private Integer streamId;
+
+    @Column(name = "version", nullable = false)
+    private int version;
+
+    @Column(name = "timestamp", nullable = false)
+    private LocalDateTime timestamp;
+
+    // Relative to model.dir
+    @Column(name = "model_path", nullable = false)
+    private String modelPath;
+
+    public ModelRegistry() {}
+
+    public ModelRegistry(String name, Integer streamId, int version, LocalDateTime timestamp, String modelPath) {
+        this.name = name;
+        this.streamId = streamId;
+        this.version = version;
+        this.timestamp = timestamp;
+        this.modelPath = modelPath;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getStreamId() {
+        return streamId;
+    }
+
+    public void setStreamId(Integer streamId) {
+        this.streamId = streamId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getModelPath() {
+        return modelPath;
+    }
+
+    public void setModelPath(String modelPath) {
+        this.modelPath = modelPath;
+    }
+}
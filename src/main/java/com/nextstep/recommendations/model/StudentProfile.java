@@ -6,7 +6,7 @@ import java.util.Map;
 import java.util.UUID;
 
 @Entity
-@Table(name = "student_profiles")
+@Table(name = "student_profiles", indexes = @Index(name = "idx_student_profiles_updated_at", columnList = "updated_at, id"))
 public class StudentProfile {
     @Id
     private UUID id;
@@ -38,6 +38,9 @@ public class StudentProfile {
     @Column(name = "gpa")
     private Double gpa;
 
+    @Column(name = "model_version")
+    private String modelVersion;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private java.time.LocalDateTime createdAt;
 
@@ -110,4 +113,20 @@ public class StudentProfile {
     public void setGpa(Double gpa) {
         this.gpa = gpa;
     }
-}
\ No newline at end of file
+
+    public String getModelVersion() {
+        return modelVersion;
+    }
+
+    public void setModelVersion(String modelVersion) {
+        this.modelVersion = modelVersion;
+    }
+
+    public java.time.LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(java.time.LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,38 @@
+package com.nextstep.recommendations.repository;
+
+// One row of career_cohort_summary: how many profiles a cohort has and their summed probability for one career
+public class CohortCareerTotal {
+    private final int educationLevel;
+    private final Integer alStream;
+    private final long profiles;
+    private final String career;
+    private final double probabilitySum;
+
+    public CohortCareerTotal(int educationLevel, Integer alStream, long profiles, String career, double probabilitySum) {
+        this.educationLevel = educationLevel;
+        this.alStream = alStream;
+        this.profiles = profiles;
+        this.career = career;
+        this.probabilitySum = probabilitySum;
+    }
+
+    public int getEducationLevel() {
+        return educationLevel;
+    }
+
+    public Integer getAlStream() {
+        return alStream;
+    }
+
+    public long getProfiles() {
+        return profiles;
+    }
+
+    public String getCareer() {
+        return career;
+    }
+
+    public double getProbabilitySum() {
+        return probabilitySum;
+    }
+}
@@ -0,0 +1,54 @@
+package com.nextstep.recommendations.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// The cohort summary materialized view over whichever profile layout predictions.storage.mode writes to. Each mode has
+// its own view, career_cohort_summary_compact or career_cohort_summary_element_collection, so switching modes never
+// serves a view built over the other layout.
+@Repository
+public class CohortSummaryRepository {
+
+    private static final String REFRESH = "REFRESH MATERIALIZED VIEW CONCURRENTLY %s";
+    private static final String SELECT_SUMMARY = """
+            SELECT education_level, al_stream, profiles, career, probability_sum
+            FROM %s
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String storageMode;
+    private final String view;
+
+    @Autowired
+    public CohortSummaryRepository(JdbcTemplate jdbcTemplate,
+                                   @Value("${predictions.storage.mode:element-collection}") String storageMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.storageMode = storageMode;
+        this.view = "career_cohort_summary_" + storageMode.replace('-', '_');
+    }
+
+    // Creates the view and its unique index if they are missing; the first creation computes it in full
+    public void create() {
+        ClassPathResource script = new ClassPathResource("db/analytics/cohort-summary-" + storageMode + ".sql");
+        new ResourceDatabasePopulator(script).execute(jdbcTemplate.getDataSource());
+    }
+
+    // Concurrent, so reads of the view are never blocked while it is recomputed
+    public void refresh() {
+        jdbcTemplate.execute(REFRESH.formatted(view));
+    }
+
+    public List<CohortCareerTotal> findAll() {
+        return jdbcTemplate.query(SELECT_SUMMARY.formatted(view), (rs, rowNum) -> {
+            int alStream = rs.getInt("al_stream");
+            return new CohortCareerTotal(rs.getInt("education_level"), alStream >= 0 ? alStream : null,
+                    rs.getLong("profiles"), rs.getString("career"), rs.getDouble("probability_sum"));
+        });
+    }
+}
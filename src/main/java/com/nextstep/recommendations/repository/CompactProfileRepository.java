@@ -0,0 +1,11 @@
+package com.nextstep.recommendations.repository;
+
+import com.nextstep.recommendations.model.CompactStudentProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface CompactProfileRepository extends JpaRepository<CompactStudentProfile, UUID> {
+}
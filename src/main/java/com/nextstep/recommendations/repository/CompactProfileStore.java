@@ -0,0 +1,139 @@
+package com.nextstep.recommendations.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextstep.recommendations.model.CompactStudentProfile;
+import com.nextstep.recommendations.model.StudentProfile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@ConditionalOnProperty(name = "predictions.storage.mode", havingValue = "compact")
+public class CompactProfileStore implements ProfileStore {
+
+    // One row per profile: a prediction is a single upsert instead of a merge plus 15-20 child rows
+    private static final String UPSERT_PROFILE = """
+            INSERT INTO student_profiles_compact
+                (id, education_level, ol_results, al_stream, al_results, career_probabilities, gpa, model_version,
+                 created_at, updated_at)
+            VALUES (?, ?, CAST(? AS jsonb), ?, CAST(? AS jsonb), CAST(? AS jsonb), ?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE SET
+                education_level = EXCLUDED.education_level,
+                ol_results = EXCLUDED.ol_results,
+                al_stream = EXCLUDED.al_stream,
+                al_results = EXCLUDED.al_results,
+                career_probabilities = EXCLUDED.career_probabilities,
+                gpa = EXCLUDED.gpa,
+                model_version = EXCLUDED.model_version,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String SELECT_UPDATED_AFTER = """
+            SELECT id, education_level, ol_results, al_stream, al_results, gpa, model_version, updated_at
+            FROM student_profiles_compact
+            WHERE (updated_at, id) > (?, ?) AND updated_at < ?
+            ORDER BY updated_at, id
+            LIMIT ?
+            """;
+    private static final TypeReference<Map<String, Double>> RESULTS = new TypeReference<>() {};
+
+    private final CompactProfileRepository compactProfileRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public CompactProfileStore(CompactProfileRepository compactProfileRepository, JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.compactProfileRepository = compactProfileRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void save(StudentProfile studentProfile) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(UPSERT_PROFILE, ps -> bind(ps, studentProfile, now));
+    }
+
+    @Override
+    public void saveAll(List<StudentProfile> profiles) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(UPSERT_PROFILE, profiles, profiles.size(), (ps, profile) -> bind(ps, profile, now));
+        });
+    }
+
+    @Override
+    public Optional<StudentProfile> findById(UUID id) {
+        return compactProfileRepository.findById(id).map(CompactStudentProfile::toStudentProfile);
+    }
+
+    @Override
+    public List<StudentProfile> findUpdatedAfter(LocalDateTime updatedAt, UUID id, LocalDateTime before, int limit) {
+        return jdbcTemplate.query(SELECT_UPDATED_AFTER, (rs, rowNum) -> {
+            StudentProfile profile = new StudentProfile();
+            profile.setId(rs.getObject("id", UUID.class));
+            profile.setEducationLevel(rs.getInt("education_level"));
+            profile.setOlResults(fromJson(rs.getString("ol_results")));
+            profile.setAlStream((Integer) rs.getObject("al_stream"));
+            profile.setAlResults(fromJson(rs.getString("al_results")));
+            profile.setGpa((Double) rs.getObject("gpa"));
+            profile.setModelVersion(rs.getString("model_version"));
+            profile.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+            return profile;
+        }, Timestamp.valueOf(updatedAt), id, Timestamp.valueOf(before), limit);
+    }
+
+    private void bind(PreparedStatement ps, StudentProfile profile, Timestamp now) throws SQLException {
+        ps.setObject(1, profile.getId());
+        ps.setInt(2, profile.getEducationLevel());
+        ps.setString(3, toJson(profile.getOlResults()));
+        ps.setObject(4, profile.getAlStream(), Types.INTEGER);
+        ps.setString(5, toJson(profile.getAlResults()));
+        ps.setString(6, toJson(profile.getCareerProbabilities()));
+        ps.setObject(7, profile.getGpa(), Types.DOUBLE);
+        ps.setString(8, profile.getModelVersion());
+        ps.setTimestamp(9, now);
+        ps.setTimestamp(10, now);
+    }
+
+    private String toJson(Map<String, Double> values) {
+        if (values == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<String, Double> fromJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, RESULTS);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.nextstep.recommendations.repository;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+@Repository
+@ConditionalOnProperty(name = "predictions.storage.mode", havingValue = "element-collection", matchIfMissing = true)
+public class ElementCollectionProfileStore implements ProfileStore {
+
+    private static final String UPSERT_PROFILE = """
+            INSERT INTO student_profiles (id, education_level, al_stream, gpa, model_version, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE SET
+                education_level = EXCLUDED.education_level,
+                al_stream = EXCLUDED.al_stream,
+                gpa = EXCLUDED.gpa,
+                model_version = EXCLUDED.model_version,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String SELECT_UPDATED_AFTER = """
+            SELECT id, education_level, al_stream, gpa, model_version, updated_at
+            FROM student_profiles
+            WHERE (updated_at, id) > (?, ?) AND updated_at < ?
+            ORDER BY updated_at, id
+            LIMIT ?
+            """;
+
+    private final RecommendationRepository recommendationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    @Autowired
+    public ElementCollectionProfileStore(RecommendationRepository recommendationRepository, JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager) {
+        this.recommendationRepository = recommendationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void save(StudentProfile studentProfile) {
+        recommendationRepository.save(studentProfile);
+    }
+
+    @Override
+    public void saveAll(List<StudentProfile> profiles) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(UPSERT_PROFILE, profiles, profiles.size(), (ps, profile) -> {
+                ps.setObject(1, profile.getId());
+                ps.setInt(2, profile.getEducationLevel());
+                ps.setObject(3, profile.getAlStream(), Types.INTEGER);
+                ps.setObject(4, profile.getGpa(), Types.DOUBLE);
+                ps.setString(5, profile.getModelVersion());
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            });
+
+            // Collection rows are replaced wholesale, matching what a JPA merge of the maps does
+            replaceEntries("ol_results", "subject", "grade", profiles, StudentProfile::getOlResults);
+            replaceEntries("al_results", "subject", "grade", profiles, StudentProfile::getAlResults);
+            replaceEntries("career_probabilities", "career", "probability", profiles, StudentProfile::getCareerProbabilities);
+        });
+    }
+
+    @Override
+    public Optional<StudentProfile> findById(UUID id) {
+        // The element collections are lazy, so they are copied out while the session is open
+        return readOnlyTransactionTemplate.execute(status -> recommendationRepository.findById(id)
+                .map(ElementCollectionProfileStore::detach));
+    }
+
+    @Override
+    public List<StudentProfile> findUpdatedAfter(LocalDateTime updatedAt, UUID id, LocalDateTime before, int limit) {
+        Map<UUID, StudentProfile> profiles = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_UPDATED_AFTER, (RowCallbackHandler) rs -> {
+            StudentProfile profile = new StudentProfile();
+            profile.setId(rs.getObject("id", UUID.class));
+            profile.setEducationLevel(rs.getInt("education_level"));
+            profile.setAlStream((Integer) rs.getObject("al_stream"));
+            profile.setGpa((Double) rs.getObject("gpa"));
+            profile.setModelVersion(rs.getString("model_version"));
+            profile.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+            profile.setOlResults(new HashMap<>());
+            profile.setAlResults(new HashMap<>());
+            profiles.put(profile.getId(), profile);
+        }, Timestamp.valueOf(updatedAt), id, Timestamp.valueOf(before), limit);
+
+        if (!profiles.isEmpty()) {
+            readEntries("ol_results", profiles, StudentProfile::getOlResults);
+            readEntries("al_results", profiles, StudentProfile::getAlResults);
+        }
+        return new ArrayList<>(profiles.values());
+    }
+
+    // One query per collection for the whole page, instead of one per profile
+    private void readEntries(String table, Map<UUID, StudentProfile> profiles,
+                             Function<StudentProfile, Map<String, Double>> getter) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT profile_id, subject, grade FROM " + table + " WHERE profile_id = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("uuid", profiles.keySet().toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> getter.apply(profiles.get(rs.getObject("profile_id", UUID.class)))
+                .put(rs.getString("subject"), (Double) rs.getObject("grade")));
+    }
+
+    private void replaceEntries(String table, String keyColumn, String valueColumn, List<StudentProfile> profiles,
+                                Function<StudentProfile, Map<String, Double>> getter) {
+        jdbcTemplate.batchUpdate("DELETE FROM " + table + " WHERE profile_id = ?", profiles, profiles.size(),
+                (ps, profile) -> ps.setObject(1, profile.getId()));
+
+        List<Object[]> rows = new ArrayList<>();
+        for (StudentProfile profile : profiles) {
+            Map<String, Double> entries = getter.apply(profile);
+            if (entries == null) {
+                continue;
+            }
+            UUID id = profile.getId();
+            for (Map.Entry<String, Double> entry : entries.entrySet()) {
+                rows.add(new Object[]{id, entry.getKey(), entry.getValue()});
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (profile_id, " + keyColumn + ", " + valueColumn
+                    + ") VALUES (?, ?, ?)", rows);
+        }
+    }
+
+    private static StudentProfile detach(StudentProfile managed) {
+        StudentProfile profile = new StudentProfile();
+        profile.setId(managed.getId());
+        profile.setEducationLevel(managed.getEducationLevel());
+        profile.setOlResults(copyOf(managed.getOlResults()));
+        profile.setAlStream(managed.getAlStream());
+        profile.setAlResults(copyOf(managed.getAlResults()));
+        profile.setCareerProbabilities(copyOf(managed.getCareerProbabilities()));
+        profile.setGpa(managed.getGpa());
+        profile.setModelVersion(managed.getModelVersion());
+        profile.setUpdatedAt(managed.getUpdatedAt());
+        return profile;
+    }
+
+    private static Map<String, Double> copyOf(Map<String, Double> entries) {
+        return entries != null ? new HashMap<>(entries) : null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.nextstep.recommendations.repository;
+
+import com.nextstep.recommendations.model.ModelRegistry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ModelRegistryRepository extends JpaRepository<ModelRegistry, Long> {
+    Optional<ModelRegistry> findFirstByStreamIdOrderByVersionDesc(Integer streamId);
+
+    Optional<ModelRegistry> findFirstByNameOrderByVersionDesc(String name);
+
+    // Newest version of every model name
+    @Query("SELECT r FROM ModelRegistry r WHERE r.version = "
+            + "(SELECT MAX(l.version) FROM ModelRegistry l WHERE l.name = r.name)")
+    List<ModelRegistry> findLatestVersions();
+
+    // Rows are only ever inserted, so a new highest id is the one signal the snapshot needs to poll for
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM ModelRegistry r")
+    long findLatestId();
+}
@@ -0,0 +1,104 @@
+package com.nextstep.recommendations.repository;
+
+import com.nextstep.recommendations.model.ModelRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// The newest registered version of each model, held in memory so resolving a model never queries the database.
+// A poller checks the highest registry id and reloads the snapshot only when a new version has been registered.
+@Repository
+@ConditionalOnProperty(name = "model.registry.enabled", havingValue = "true")
+public class ModelRegistryStore {
+    private static final Logger log = LoggerFactory.getLogger(ModelRegistryStore.class);
+
+    private final ModelRegistryRepository modelRegistryRepository;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService poller;
+    private final Counter pollFailures;
+    private volatile Map<String, ModelRegistry> latest = Map.of();
+    private long latestId = -1;
+
+    @Autowired
+    public ModelRegistryStore(ModelRegistryRepository modelRegistryRepository,
+                              @Value("${model.registry.poll-interval:5s}") Duration pollInterval,
+                              MeterRegistry meterRegistry) {
+        this.modelRegistryRepository = modelRegistryRepository;
+        this.pollFailures = meterRegistry.counter("model.registry.poll.failures");
+        Gauge.builder("model.registry.models", this, store -> store.latest.size()).register(meterRegistry);
+        poll();
+
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "model-registry-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public Optional<ModelRegistry> latest(String name) {
+        return Optional.ofNullable(latest.get(name));
+    }
+
+    public Map<String, ModelRegistry> latestVersions() {
+        return latest;
+    }
+
+    // Visible to this instance at once; other instances pick it up on their next poll
+    public ModelRegistry register(String name, Integer streamId, int version, String modelPath) {
+        ModelRegistry entry = modelRegistryRepository.save(new ModelRegistry(name, streamId, version, LocalDateTime.now(), modelPath));
+        poll();
+        return entry;
+    }
+
+    // Called on the poller thread after the snapshot changes
+    public void onChange(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    synchronized void poll() {
+        try {
+            long id = modelRegistryRepository.findLatestId();
+            if (id == latestId) {
+                return;
+            }
+            Map<String, ModelRegistry> versions = new HashMap<>();
+            for (ModelRegistry entry : modelRegistryRepository.findLatestVersions()) {
+                versions.put(entry.getName(), entry);
+            }
+            latest = Map.copyOf(versions);
+            latestId = id;
+        } catch (RuntimeException e) {
+            // The last snapshot keeps serving while the database is unreachable
+            pollFailures.increment();
+            log.warn("Could not refresh the model registry snapshot: {}", e.getMessage());
+            return;
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+}
@@ -0,0 +1,34 @@
+package com.nextstep.recommendations.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+@ConditionalOnProperty(name = "predictions.storage.migrate", havingValue = "true")
+public class ProfileStorageMigrator {
+    private static final Logger log = LoggerFactory.getLogger(ProfileStorageMigrator.class);
+
+    private final DataSource dataSource;
+
+    @Autowired
+    public ProfileStorageMigrator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        // Copies element-collection profiles into the compact layout; rows already migrated are left untouched
+        long start = System.nanoTime();
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/compact-profiles.sql")).execute(dataSource);
+        log.info("Migrated student profiles to the compact layout in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+}
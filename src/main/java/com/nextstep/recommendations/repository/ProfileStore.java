@@ -0,0 +1,22 @@
+package com.nextstep.recommendations.repository;
+
+import com.nextstep.recommendations.model.StudentProfile;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ProfileStore {
+
+    void save(StudentProfile studentProfile);
+
+    // Writes the whole list in one transaction using JDBC batches
+    void saveAll(List<StudentProfile> studentProfiles);
+
+    Optional<StudentProfile> findById(UUID id);
+
+    // The change feed: up to limit profiles written after the (updatedAt, id) cursor and before the given time, oldest
+    // first, without their career probabilities
+    List<StudentProfile> findUpdatedAfter(LocalDateTime updatedAt, UUID id, LocalDateTime before, int limit);
+}
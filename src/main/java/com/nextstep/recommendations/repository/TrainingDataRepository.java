@@ -0,0 +1,78 @@
+package com.nextstep.recommendations.repository;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.utils.Config;
+import com.nextstep.recommendations.utils.TrainingTarget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Reads the generated_* tables written by the profile generator as labelled training rows
+@Repository
+public class TrainingDataRepository {
+
+    private static final String SELECT_PROFILES = "SELECT id, education_level, al_stream, gpa FROM generated_student_profiles";
+    private static final String SELECT_OL_RESULTS = "SELECT profile_id, subject, grade FROM generated_ol_results";
+    private static final String SELECT_AL_RESULTS = "SELECT profile_id, subject, grade FROM generated_al_results";
+
+    // The label is the most probable career the generator assigned
+    private static final String SELECT_LABELS = """
+            SELECT DISTINCT ON (profile_id) profile_id, career
+            FROM generated_career_probabilities
+            ORDER BY profile_id, probability DESC
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TrainingDataRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Generated rows key results by subject name; they are handed on keyed by subject id, like API profiles
+    public void forEachLabelledProfile(TrainingTarget target, BiConsumer<StudentProfile, Integer> consumer) {
+        Map<Integer, StudentProfile> profiles = new HashMap<>();
+        jdbcTemplate.query(SELECT_PROFILES, (RowCallbackHandler) rs -> {
+            int educationLevel = rs.getInt("education_level");
+            Integer alStream = (Integer) rs.getObject("al_stream");
+            if (!target.includes(educationLevel, alStream)) {
+                return;
+            }
+            StudentProfile profile = new StudentProfile();
+            profile.setEducationLevel(educationLevel);
+            profile.setAlStream(alStream);
+            profile.setGpa((Double) rs.getObject("gpa"));
+            profile.setOlResults(new HashMap<>());
+            profile.setAlResults(new HashMap<>());
+            profiles.put(rs.getInt("id"), profile);
+        });
+
+        readResults(SELECT_OL_RESULTS, profiles, Config.OL_SUBJECTS, StudentProfile::getOlResults);
+        readResults(SELECT_AL_RESULTS, profiles, Config.AL_SUBJECTS, StudentProfile::getAlResults);
+
+        jdbcTemplate.query(SELECT_LABELS, (RowCallbackHandler) rs -> {
+            StudentProfile profile = profiles.remove(rs.getInt("profile_id"));
+            Integer career = Config.CAREERS.get(rs.getString("career"));
+            if (profile != null && career != null) {
+                consumer.accept(profile, career);
+            }
+        });
+    }
+
+    private void readResults(String sql, Map<Integer, StudentProfile> profiles, Map<String, Integer> subjectIds,
+                             Function<StudentProfile, Map<String, Double>> results) {
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            StudentProfile profile = profiles.get(rs.getInt("profile_id"));
+            Integer subject = subjectIds.get(rs.getString("subject"));
+            if (profile != null && subject != null) {
+                results.apply(profile).put(String.valueOf(subject), (Double) rs.getObject("grade"));
+            }
+        });
+    }
+}
@@ -0,0 +1,183 @@
+package com.nextstep.recommendations.service;
+
+import com.nextstep.recommendations.dto.CohortSummaryDTO;
+import com.nextstep.recommendations.repository.CohortCareerTotal;
+import com.nextstep.recommendations.repository.CohortSummaryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Cohort breakdowns served from an in-memory snapshot of the cohort summary materialized view, so a query is a
+// map lookup however many profiles are stored. The view is refreshed every analytics.refresh-interval on a background
+// thread; each refresh builds a new snapshot, including roll-ups over streams and levels, and swaps it in whole.
+@Service
+@ConditionalOnProperty(name = "analytics.enabled", havingValue = "true")
+public class CohortAnalyticsService {
+    private static final Logger log = LoggerFactory.getLogger(CohortAnalyticsService.class);
+
+    private static final String ALL = "*";
+    private static final String NO_STREAM = "none";
+
+    private final CohortSummaryRepository cohortSummaryRepository;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService refresher;
+    private final Timer refreshTimer;
+    private final Counter refreshFailures;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), List.of());
+    // Only read and written on the refresher thread
+    private boolean viewCreated;
+
+    @Autowired
+    public CohortAnalyticsService(CohortSummaryRepository cohortSummaryRepository,
+                                  @Value("${analytics.refresh-interval:5m}") Duration refreshInterval,
+                                  MeterRegistry meterRegistry) {
+        this.cohortSummaryRepository = cohortSummaryRepository;
+        this.refreshInterval = refreshInterval;
+        this.refreshTimer = meterRegistry.timer("analytics.refresh");
+        this.refreshFailures = meterRegistry.counter("analytics.refresh.failures");
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cohort-summary-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Started once the schema exists; until the first refresh completes every query answers empty
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresher.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // A null level or stream rolls up over all of them
+    public Optional<CohortSummaryDTO> cohort(Integer educationLevel, Integer alStream) {
+        return Optional.ofNullable(snapshot.cohorts.get(key(token(educationLevel), token(alStream))));
+    }
+
+    // Every (education level, AL stream) cohort; profiles without a stream have a null alStream
+    public List<CohortSummaryDTO> cohorts() {
+        return snapshot.base;
+    }
+
+    void refresh() {
+        long start = System.nanoTime();
+        try {
+            // Creation is retried on every refresh until it succeeds, as the database may not be reachable at startup
+            if (!viewCreated) {
+                cohortSummaryRepository.create();
+                viewCreated = true;
+            }
+            cohortSummaryRepository.refresh();
+            snapshot = build(cohortSummaryRepository.findAll(), LocalDateTime.now());
+            refreshTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            // The previous snapshot keeps serving until a refresh succeeds
+            refreshFailures.increment();
+            log.warn("Could not refresh the cohort summary: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    static Snapshot build(List<CohortCareerTotal> totals, LocalDateTime refreshedAt) {
+        Map<String, Totals> byKey = new HashMap<>();
+        Map<String, Totals> base = new HashMap<>();
+        for (CohortCareerTotal total : totals) {
+            List<Totals> cohorts = rollUps(byKey, total.getEducationLevel(), total.getAlStream());
+            // Each base cohort repeats its size on every career row, so it is added to the roll-ups only once
+            if (base.putIfAbsent(cohorts.get(0).key, cohorts.get(0)) == null) {
+                cohorts.forEach(cohort -> cohort.profiles += total.getProfiles());
+            }
+            cohorts.forEach(cohort -> cohort.careerSums.merge(total.getCareer(), total.getProbabilitySum(), Double::sum));
+        }
+
+        Map<String, CohortSummaryDTO> cohorts = new HashMap<>();
+        List<CohortSummaryDTO> baseCohorts = new ArrayList<>();
+        for (Totals cohortTotals : byKey.values()) {
+            CohortSummaryDTO cohort = cohortTotals.toDTO(refreshedAt);
+            cohorts.put(cohortTotals.key, cohort);
+            if (base.containsKey(cohortTotals.key)) {
+                baseCohorts.add(cohort);
+            }
+        }
+        return new Snapshot(Map.copyOf(cohorts), List.copyOf(baseCohorts));
+    }
+
+    // The base cohort first, then its roll-ups over streams, over levels and over everything
+    private static List<Totals> rollUps(Map<String, Totals> byKey, int educationLevel, Integer alStream) {
+        String level = String.valueOf(educationLevel);
+        String stream = alStream != null ? String.valueOf(alStream) : NO_STREAM;
+        return List.of(
+                byKey.computeIfAbsent(key(level, stream), key -> new Totals(key, educationLevel, alStream)),
+                byKey.computeIfAbsent(key(level, ALL), key -> new Totals(key, educationLevel, null)),
+                byKey.computeIfAbsent(key(ALL, stream), key -> new Totals(key, null, alStream)),
+                byKey.computeIfAbsent(key(ALL, ALL), key -> new Totals(key, null, null)));
+    }
+
+    private static String key(String educationLevel, String alStream) {
+        return educationLevel + "/" + alStream;
+    }
+
+    private static String token(Integer value) {
+        return value != null ? String.valueOf(value) : ALL;
+    }
+
+    static final class Snapshot {
+        private final Map<String, CohortSummaryDTO> cohorts;
+        private final List<CohortSummaryDTO> base;
+
+        Snapshot(Map<String, CohortSummaryDTO> cohorts, List<CohortSummaryDTO> base) {
+            this.cohorts = cohorts;
+            this.base = base;
+        }
+    }
+
+    private static final class Totals {
+        private final Integer educationLevel;
+        private final Integer alStream;
+        private final String key;
+        private final Map<String, Double> careerSums = new HashMap<>();
+        private long profiles;
+
+        Totals(String key, Integer educationLevel, Integer alStream) {
+            this.key = key;
+            this.educationLevel = educationLevel;
+            this.alStream = alStream;
+        }
+
+        // Careers a profile did not store, as in top-K mode, count as zero towards the cohort average
+        CohortSummaryDTO toDTO(LocalDateTime refreshedAt) {
+            Map<String, Double> averages = new HashMap<>();
+            careerSums.forEach((career, sum) -> averages.put(career, profiles > 0 ? sum / profiles : 0.0));
+            CohortSummaryDTO cohort = new CohortSummaryDTO();
+            cohort.setEducationLevel(educationLevel);
+            cohort.setAlStream(alStream);
+            cohort.setProfiles(profiles);
+            cohort.setAverageCareerProbabilities(Map.copyOf(averages));
+            cohort.setRefreshedAt(refreshedAt);
+            return cohort;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.nextstep.recommendations.service;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.repository.ProfileStore;
+import com.nextstep.recommendations.utils.HeuristicScorer;
+import com.nextstep.recommendations.utils.Predictor;
+import com.nextstep.recommendations.utils.ServingModel;
+import com.nextstep.recommendations.utils.TrainingSetBuilder;
+import com.nextstep.recommendations.utils.TrainingTarget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.classifiers.UpdateableClassifier;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.Utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Keeps an updateable shadow model learning from profiles as they are saved. Each poll reads the profile change feed
+// in micro-batches and feeds the shadow, labelled by the heuristic's top career so the model never learns from its
+// own predictions. The feed is read up to the lag window behind now, so a transaction that stamped updated_at before
+// committing is still seen once it commits. A slice of profiles, picked by id, is held out instead of learned. The
+// shadow stays off the serving path until it has learned the minimum number of profiles and beats the model currently
+// serving on that holdout; then a serialized snapshot is published to the Predictor at most once per publish
+// interval. The shadow itself is only ever touched by the learner thread.
+@Service
+@ConditionalOnProperty(name = "model.online.enabled", havingValue = "true")
+public class OnlineLearningService {
+    private static final Logger log = LoggerFactory.getLogger(OnlineLearningService.class);
+
+    static final String MODEL_FILE = "online.model";
+    static final String SCHEMA_FILE = "online.schema";
+    static final String CURSOR_FILE = "online.cursor";
+    private static final String NAME = "online";
+    private static final LocalDateTime FIRST_UPDATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final ProfileStore profileStore;
+    private final Predictor predictor;
+    private final HeuristicScorer heuristicScorer;
+    private final Path modelDir;
+    private final int batchSize;
+    private final long publishIntervalNanos;
+    private final Duration feedLag;
+    private final long minProfiles;
+    private final int holdoutPercent;
+    private final double minAccuracy;
+    private final double minAccuracyGain;
+    private final TrainingTarget target = TrainingTarget.parse(TrainingTarget.CAREER_PREDICTION);
+    private final Instances header = target.header();
+    private final UpdateableClassifier shadow;
+    private final ScheduledExecutorService learner;
+    private final Counter learnedProfiles;
+    private final Counter updateFailures;
+    private final Counter rejectedPublishes;
+    private final Map<UUID, StudentProfile> holdout;
+
+    private LocalDateTime cursorUpdatedAt;
+    private UUID cursorId;
+    private long learned;
+    private boolean unpublished;
+    private long lastPublish;
+
+    @Autowired
+    public OnlineLearningService(ProfileStore profileStore, Predictor predictor, HeuristicScorer heuristicScorer,
+                                 @Value("${model.dir}") String modelDir,
+                                 @Value("${model.online.classifier:weka.classifiers.bayes.NaiveBayesUpdateable}") String classifierSpec,
+                                 @Value("${model.online.batch-size:500}") int batchSize,
+                                 @Value("${model.online.poll-interval:10s}") Duration pollInterval,
+                                 @Value("${model.online.publish-interval:1m}") Duration publishInterval,
+                                 @Value("${model.online.feed-lag:30s}") Duration feedLag,
+                                 @Value("${model.online.min-profiles:1000}") long minProfiles,
+                                 @Value("${model.online.holdout-percent:10}") int holdoutPercent,
+                                 @Value("${model.online.holdout-size:500}") int holdoutSize,
+                                 @Value("${model.online.min-accuracy:0.9}") double minAccuracy,
+                                 @Value("${model.online.min-accuracy-gain:0.0}") double minAccuracyGain,
+                                 MeterRegistry meterRegistry) throws Exception {
+        this.profileStore = profileStore;
+        this.predictor = predictor;
+        this.heuristicScorer = heuristicScorer;
+        this.modelDir = Path.of(modelDir);
+        this.batchSize = batchSize;
+        this.publishIntervalNanos = publishInterval.toNanos();
+        this.feedLag = feedLag;
+        this.minProfiles = minProfiles;
+        this.holdoutPercent = holdoutPercent;
+        this.minAccuracy = minAccuracy;
+        this.minAccuracyGain = minAccuracyGain;
+        this.learnedProfiles = meterRegistry.counter("model.online.profiles");
+        this.updateFailures = meterRegistry.counter("model.online.failures");
+        this.rejectedPublishes = meterRegistry.counter("model.online.publish.rejected");
+        this.lastPublish = System.nanoTime() - publishIntervalNanos;
+        // The most recent holdout profiles, with a re-saved profile replacing its older version
+        this.holdout = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, StudentProfile> eldest) {
+                return size() > holdoutSize;
+            }
+        };
+
+        // Resume the shadow and its position in the feed from the last publish, or learn the whole feed from the
+        // start. A resumed shadow is not served until it passes the gate again
+        byte[] resumed = resume();
+        if (resumed != null) {
+            this.shadow = (UpdateableClassifier) SerializationHelper.read(new ByteArrayInputStream(resumed));
+        } else {
+            this.shadow = newClassifier(classifierSpec);
+            this.cursorUpdatedAt = FIRST_UPDATE;
+            this.cursorId = FIRST_ID;
+        }
+
+        this.learner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "online-learner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        learner.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Drains the feed in micro-batches, then publishes if the interval has passed since the last attempt and the
+    // shadow passes the gate
+    void poll() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minus(feedLag);
+            List<StudentProfile> batch;
+            do {
+                batch = profileStore.findUpdatedAfter(cursorUpdatedAt, cursorId, before, batchSize);
+                learn(batch);
+            } while (batch.size() == batchSize);
+
+            if (unpublished && System.nanoTime() - lastPublish >= publishIntervalNanos) {
+                lastPublish = System.nanoTime();
+                if (passesGate()) {
+                    publish();
+                }
+            }
+        } catch (Exception e) {
+            // The cursor has not moved past the failed batch, so the next poll retries it
+            updateFailures.increment();
+            log.warn("Online model update failed: {}", e.toString());
+        }
+    }
+
+    private void learn(List<StudentProfile> batch) throws Exception {
+        if (batch.isEmpty()) {
+            return;
+        }
+        TrainingSetBuilder builder = new TrainingSetBuilder(target);
+        for (StudentProfile studentProfile : batch) {
+            // Hashing the id keeps a re-saved profile on the same side of the split
+            if (Math.floorMod(studentProfile.getId().hashCode(), 100) < holdoutPercent) {
+                holdout.remove(studentProfile.getId());
+                holdout.put(studentProfile.getId(), studentProfile);
+            } else {
+                builder.add(studentProfile, Utils.maxIndex(heuristicScorer.score(studentProfile)));
+            }
+        }
+        for (Instance instance : builder.build()) {
+            shadow.updateClassifier(instance);
+        }
+
+        StudentProfile last = batch.get(batch.size() - 1);
+        cursorUpdatedAt = last.getUpdatedAt();
+        cursorId = last.getId();
+        unpublished |= builder.size() > 0;
+        learned += builder.size();
+        learnedProfiles.increment(builder.size());
+    }
+
+    // The shadow is published only once it has learned enough profiles and, on the holdout, reaches the accuracy
+    // floor and beats the model currently serving by the required gain
+    private boolean passesGate() throws Exception {
+        if (learned < minProfiles) {
+            log.debug("Online model has learned {} of {} profiles, not publishing", learned, minProfiles);
+            return false;
+        }
+        TrainingSetBuilder builder = new TrainingSetBuilder(target);
+        List<StudentProfile> evaluated = new ArrayList<>(holdout.size());
+        for (StudentProfile studentProfile : holdout.values()) {
+            if (builder.add(studentProfile, Utils.maxIndex(heuristicScorer.score(studentProfile)))) {
+                evaluated.add(studentProfile);
+            }
+        }
+        Instances labelled = builder.build();
+        if (labelled.isEmpty()) {
+            log.debug("No held-out profiles to evaluate the online model on, not publishing");
+            return false;
+        }
+
+        int shadowCorrect = 0;
+        for (Instance instance : labelled) {
+            if (Utils.maxIndex(((Classifier) shadow).distributionForInstance(instance)) == (int) instance.classValue()) {
+                shadowCorrect++;
+            }
+        }
+        double shadowAccuracy = (double) shadowCorrect / labelled.size();
+        double servingAccuracy = servingAccuracy(evaluated, labelled);
+        if (shadowAccuracy < minAccuracy || shadowAccuracy < servingAccuracy + minAccuracyGain) {
+            log.info("Online model not published: holdout accuracy {} against {} for the serving model",
+                    shadowAccuracy, servingAccuracy);
+            rejectedPublishes.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // Accuracy of the model now serving on the same holdout, or 0 while only the heuristic serves. Scored on a private
+    // copy of the model, so the holdout never shows in the prediction metrics or fills the prediction cache
+    private double servingAccuracy(List<StudentProfile> evaluated, Instances labelled) throws Exception {
+        ServingModel serving = predictor.servingModel();
+        if (serving == null) {
+            return 0.0;
+        }
+        int correct = 0;
+        for (int i = 0; i < evaluated.size(); i++) {
+            String label = labelled.classAttribute().value((int) labelled.get(i).classValue());
+            if (label.equals(serving.topCareer(evaluated.get(i)))) {
+                correct++;
+            }
+        }
+        return (double) correct / evaluated.size();
+    }
+
+    private void publish() throws Exception {
+        byte[] serializedModel = serialize();
+        String version = predictor.publish(serializedModel, header, NAME).join();
+
+        // Written after the swap, so a restart resumes from a model that has actually served
+        writeAtomically(modelDir.resolve(SCHEMA_FILE), serialize(new Instances(header, 0)));
+        writeAtomically(modelDir.resolve(MODEL_FILE), serializedModel);
+        writeAtomically(modelDir.resolve(CURSOR_FILE),
+                (cursorUpdatedAt + " " + cursorId + " " + learned).getBytes(StandardCharsets.UTF_8));
+        unpublished = false;
+        log.info("Published online model {}", version);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        learner.shutdownNow();
+    }
+
+    // The last published model's bytes, with the cursor restored, or null to start over
+    private byte[] resume() {
+        Path modelFile = modelDir.resolve(MODEL_FILE);
+        Path cursorFile = modelDir.resolve(CURSOR_FILE);
+        if (!Files.isRegularFile(modelFile) || !Files.isRegularFile(cursorFile)) {
+            return null;
+        }
+        try {
+            Instances saved = (Instances) SerializationHelper.read(modelDir.resolve(SCHEMA_FILE).toString());
+            if (!saved.equalHeaders(header)) {
+                log.warn("Online model {} was trained on other features, starting a new one", modelFile);
+                return null;
+            }
+            String[] cursor = Files.readString(cursorFile).trim().split(" ");
+            byte[] serializedModel = Files.readAllBytes(modelFile);
+            cursorUpdatedAt = LocalDateTime.parse(cursor[0]);
+            cursorId = UUID.fromString(cursor[1]);
+            // Cursors written before the count was recorded resume with the gate's minimum still to learn
+            learned = cursor.length > 2 ? Long.parseLong(cursor[2]) : 0;
+            unpublished = true;
+            return serializedModel;
+        } catch (Exception e) {
+            log.warn("Could not resume online model from {}, starting a new one: {}", modelFile, e.toString());
+            return null;
+        }
+    }
+
+    private UpdateableClassifier newClassifier(String classifierSpec) throws Exception {
+        String[] options = Utils.splitOptions(classifierSpec);
+        String className = options[0];
+        options[0] = "";
+        Classifier classifier = AbstractClassifier.forName(className, options);
+        if (!(classifier instanceof UpdateableClassifier updateable)) {
+            throw new IllegalArgumentException(className + " is not an UpdateableClassifier");
+        }
+        classifier.buildClassifier(new Instances(header, 0));
+        return updateable;
+    }
+
+    private byte[] serialize() throws Exception {
+        return serialize(shadow);
+    }
+
+    private static byte[] serialize(Object object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SerializationHelper.write(bytes, object);
+        return bytes.toByteArray();
+    }
+
+    private static void writeAtomically(Path file, byte[] content) throws Exception {
+        Path staging = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(staging, content);
+        Files.move(staging, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
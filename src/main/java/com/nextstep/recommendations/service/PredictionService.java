@@ -1,36 +1,177 @@
 package com.nextstep.recommendations.service;
 
+import com.nextstep.recommendations.dto.BatchItemErrorDTO;
+import com.nextstep.recommendations.dto.BatchPredictionResponseDTO;
+import com.nextstep.recommendations.dto.SimilarProfileDTO;
 import com.nextstep.recommendations.dto.StudentProfileDTO;
 import com.nextstep.recommendations.mapper.StudentProfileMapper;
 import com.nextstep.recommendations.model.StudentProfile;
-import com.nextstep.recommendations.repository.RecommendationRepository;
+import com.nextstep.recommendations.repository.ProfileStore;
+import com.nextstep.recommendations.utils.PredictionMetrics;
 import com.nextstep.recommendations.utils.Predictor;
+import com.nextstep.recommendations.utils.Scorer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class PredictionService {
 
-    private final RecommendationRepository recommendationRepository;
+    private final ProfileStore profileStore;
+    private final Optional<WriteBehindQueue> writeBehindQueue;
+    private final RecommendationCache recommendationCache;
+    private final Optional<SimilarProfilesService> similarProfilesService;
     private final Predictor predictor;
+    private final PredictionMetrics predictionMetrics;
+    private final int chunkSize;
+    private final int topK;
 
     @Autowired
-    public PredictionService(RecommendationRepository recommendationRepository, Predictor predictor) {
-        this.recommendationRepository = recommendationRepository;
+    public PredictionService(ProfileStore profileStore, Optional<WriteBehindQueue> writeBehindQueue,
+                             RecommendationCache recommendationCache,
+                             Optional<SimilarProfilesService> similarProfilesService, Predictor predictor,
+                             PredictionMetrics predictionMetrics,
+                             @Value("${predictions.batch.chunk-size:500}") int chunkSize,
+                             @Value("${predictions.top-k:0}") int topK) {
+        this.profileStore = profileStore;
+        this.writeBehindQueue = writeBehindQueue;
+        this.recommendationCache = recommendationCache;
+        this.similarProfilesService = similarProfilesService;
         this.predictor = predictor;
+        this.predictionMetrics = predictionMetrics;
+        this.chunkSize = chunkSize;
+        this.topK = topK;
     }
 
     @Transactional
-    public StudentProfileDTO updateStudentProfile(UUID userId, StudentProfileDTO studentProfileDTO) throws Exception {
+    public StudentProfileDTO updateStudentProfile(UUID userId, StudentProfileDTO studentProfileDTO, Scorer scorer) throws Exception {
         studentProfileDTO.setId(userId);
 
-        StudentProfile studentProfile = StudentProfileMapper.INSTANCE.toEntity(studentProfileDTO);
-        studentProfile = predictor.updateCareerProbabilities(studentProfile);
+        long start = System.nanoTime();
+        StudentProfile mapped = StudentProfileMapper.INSTANCE.toEntity(studentProfileDTO);
+        long mapping = System.nanoTime() - start;
+        StudentProfile studentProfile = predictor.updateCareerProbabilities(mapped, scorer);
+        String educationLevel = PredictionMetrics.educationLevelTag(studentProfile.getEducationLevel());
+        String modelVersion = studentProfile.getModelVersion();
 
-        recommendationRepository.save(studentProfile);
-        return StudentProfileMapper.INSTANCE.toDTO(studentProfile);
+        // In write-behind mode the response does not wait for the database round trip, so only the enqueue is timed
+        start = System.nanoTime();
+        if (writeBehindQueue.isPresent()) {
+            writeBehindQueue.get().enqueue(studentProfile);
+        } else {
+            profileStore.save(studentProfile);
+        }
+        predictionMetrics.recordUntilCommit(PredictionMetrics.Stage.PERSISTENCE, educationLevel, modelVersion, start);
+
+        start = System.nanoTime();
+        StudentProfileDTO scored = StudentProfileMapper.INSTANCE.toDTO(studentProfile, topK);
+        predictionMetrics.record(PredictionMetrics.Stage.MAPPING, educationLevel, modelVersion, mapping + System.nanoTime() - start);
+        recommendationCache.put(scored);
+        similarProfilesService.ifPresent(service -> service.index(studentProfile));
+        return scored;
+    }
+
+    public Optional<StudentProfileDTO> findStudentProfile(UUID id) {
+        return recommendationCache.get(id);
+    }
+
+    public Optional<List<SimilarProfileDTO>> findSimilarProfiles(UUID id, int k) {
+        return similarProfilesService.flatMap(service -> service.similar(id, k));
+    }
+
+    public BatchPredictionResponseDTO updateStudentProfiles(List<StudentProfileDTO> studentProfileDTOs, Scorer scorer) {
+        BatchPredictionResponseDTO response = new BatchPredictionResponseDTO();
+        List<Integer> indexes = new ArrayList<>();
+        List<StudentProfile> studentProfiles = scoreBatch(studentProfileDTOs, 0, indexes, response, scorer);
+
+        for (int from = 0; from < studentProfiles.size(); from += chunkSize) {
+            int to = Math.min(studentProfiles.size(), from + chunkSize);
+            persistChunk(studentProfiles.subList(from, to), indexes.subList(from, to), response);
+        }
+        return response;
+    }
+
+    List<StudentProfile> scoreBatch(List<StudentProfileDTO> studentProfileDTOs, int firstIndex, List<Integer> indexes,
+                                    BatchPredictionResponseDTO response, Scorer scorer) {
+        List<StudentProfile> studentProfiles = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < studentProfileDTOs.size(); i++) {
+            StudentProfileDTO studentProfileDTO = studentProfileDTOs.get(i);
+            String error = validate(studentProfileDTO);
+            if (error != null) {
+                response.getErrors().add(new BatchItemErrorDTO(firstIndex + i, studentProfileDTO != null ? studentProfileDTO.getId() : null, error));
+                continue;
+            }
+            indexes.add(firstIndex + i);
+            studentProfiles.add(StudentProfileMapper.INSTANCE.toEntity(studentProfileDTO));
+        }
+        predictionMetrics.record(PredictionMetrics.Stage.MAPPING, PredictionMetrics.ALL, PredictionMetrics.NONE,
+                System.nanoTime() - start);
+
+        try {
+            predictor.updateCareerProbabilities(studentProfiles, scorer);
+        } catch (Exception e) {
+            for (int i = 0; i < studentProfiles.size(); i++) {
+                response.getErrors().add(new BatchItemErrorDTO(indexes.get(i), studentProfiles.get(i).getId(), e.getMessage()));
+            }
+            indexes.clear();
+            return List.of();
+        }
+        return studentProfiles;
+    }
+
+    void persistChunk(List<StudentProfile> studentProfiles, List<Integer> indexes, BatchPredictionResponseDTO response) {
+        if (studentProfiles.isEmpty()) {
+            return;
+        }
+        // Each chunk commits on its own; a failed chunk is retried item by item to isolate the bad rows
+        try {
+            long start = System.nanoTime();
+            profileStore.saveAll(studentProfiles);
+            predictionMetrics.record(PredictionMetrics.Stage.PERSISTENCE, PredictionMetrics.ALL, PredictionMetrics.ALL,
+                    System.nanoTime() - start);
+            for (StudentProfile studentProfile : studentProfiles) {
+                addResult(studentProfile, response);
+            }
+        } catch (RuntimeException chunkFailure) {
+            for (int i = 0; i < studentProfiles.size(); i++) {
+                StudentProfile studentProfile = studentProfiles.get(i);
+                try {
+                    profileStore.saveAll(List.of(studentProfile));
+                    addResult(studentProfile, response);
+                } catch (RuntimeException e) {
+                    response.getErrors().add(new BatchItemErrorDTO(indexes.get(i), studentProfile.getId(), e.getMessage()));
+                }
+            }
+        }
+    }
+
+    private void addResult(StudentProfile studentProfile, BatchPredictionResponseDTO response) {
+        long start = System.nanoTime();
+        StudentProfileDTO scored = StudentProfileMapper.INSTANCE.toDTO(studentProfile, topK);
+        predictionMetrics.record(PredictionMetrics.Stage.MAPPING, studentProfile.getEducationLevel(),
+                studentProfile.getModelVersion(), System.nanoTime() - start);
+        recommendationCache.put(scored);
+        similarProfilesService.ifPresent(service -> service.index(studentProfile));
+        response.getResults().add(scored);
+    }
+
+    private static String validate(StudentProfileDTO studentProfileDTO) {
+        if (studentProfileDTO == null) {
+            return "Profile is required";
+        }
+        if (studentProfileDTO.getId() == null) {
+            return "Profile id is required";
+        }
+        if (studentProfileDTO.getOlResults() == null || studentProfileDTO.getOlResults().isEmpty()) {
+            return "OL results are required";
+        }
+        return null;
     }
 }
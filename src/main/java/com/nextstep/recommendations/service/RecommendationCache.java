@@ -0,0 +1,69 @@
+package com.nextstep.recommendations.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.nextstep.recommendations.dto.StudentProfileDTO;
+import com.nextstep.recommendations.mapper.StudentProfileMapper;
+import com.nextstep.recommendations.repository.ProfileStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+// Bounded read-through cache of stored recommendations, held in response form. Misses load through the ProfileStore;
+// the write paths put what they just scored, so a read after a write sees it even before write-behind has flushed.
+// Unknown ids are not cached, and entries expire so writes from other instances are picked up eventually.
+@Component
+public class RecommendationCache {
+    private final ProfileStore profileStore;
+    private final int topK;
+    private final LoadingCache<UUID, StudentProfileDTO> cache;
+
+    @Autowired
+    public RecommendationCache(ProfileStore profileStore,
+                               @Value("${predictions.read-cache.maximum-size:10000}") long maximumSize,
+                               @Value("${predictions.read-cache.expire-after-write:10m}") Duration expireAfterWrite,
+                               @Value("${predictions.top-k:0}") int topK,
+                               MeterRegistry meterRegistry) {
+        this.profileStore = profileStore;
+        this.topK = topK;
+        this.cache = maximumSize > 0
+                ? Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).recordStats().build(this::load)
+                : null;
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "recommendations");
+        }
+    }
+
+    public Optional<StudentProfileDTO> get(UUID id) {
+        return Optional.ofNullable(cache != null ? cache.get(id) : load(id));
+    }
+
+    // Inside a transaction the entry is only replaced once the write commits
+    public void put(StudentProfileDTO studentProfileDTO) {
+        if (cache == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(studentProfileDTO.getId(), studentProfileDTO);
+                }
+            });
+        } else {
+            cache.put(studentProfileDTO.getId(), studentProfileDTO);
+        }
+    }
+
+    private StudentProfileDTO load(UUID id) {
+        return profileStore.findById(id).map(studentProfile -> StudentProfileMapper.INSTANCE.toDTO(studentProfile, topK)).orElse(null);
+    }
+}
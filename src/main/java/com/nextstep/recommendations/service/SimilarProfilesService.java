@@ -0,0 +1,261 @@
+package com.nextstep.recommendations.service;
+
+import com.nextstep.recommendations.dto.SimilarProfileDTO;
+import com.nextstep.recommendations.dto.StudentProfileDTO;
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.repository.ProfileStore;
+import com.nextstep.recommendations.utils.HnswIndex;
+import com.nextstep.recommendations.utils.ProfileVectors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// "Students like me": every stored profile as a ProfileVectors point in an HNSW index, so the nearest peers of a
+// profile are found without scanning the others. The index is built from the profile change feed at startup and then
+// kept current by PredictionService handing over each profile it saves, once its transaction commits; inserts run on
+// one indexer thread, searches run concurrently under a read lock. A re-saved profile replaces its old point, which
+// stays in the graph as a tombstone until tombstones pass the compaction threshold and the graph is rebuilt from its
+// live points. Peers are returned without their ids, with their recommendations read through the RecommendationCache.
+@Service
+@ConditionalOnProperty(name = "similarity.enabled", havingValue = "true")
+public class SimilarProfilesService {
+    private static final Logger log = LoggerFactory.getLogger(SimilarProfilesService.class);
+
+    private static final LocalDateTime FIRST_UPDATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ProfileStore profileStore;
+    private final RecommendationCache recommendationCache;
+    private final int maxLinks;
+    private final int efConstruction;
+    private final int efSearch;
+    private final boolean offHeap;
+    private final int bootstrapBatchSize;
+    private final double compactThreshold;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService indexer;
+    private final Timer searchTimer;
+    private final Counter compactions;
+    private HnswIndex index;
+    private Map<UUID, Integer> nodeById = new HashMap<>();
+    private UUID[] idByNode = new UUID[INITIAL_CAPACITY];
+
+    @Autowired
+    public SimilarProfilesService(ProfileStore profileStore, RecommendationCache recommendationCache,
+                                  @Value("${similarity.max-links:16}") int maxLinks,
+                                  @Value("${similarity.ef-construction:100}") int efConstruction,
+                                  @Value("${similarity.ef-search:64}") int efSearch,
+                                  @Value("${similarity.off-heap:false}") boolean offHeap,
+                                  @Value("${similarity.bootstrap-batch-size:1000}") int bootstrapBatchSize,
+                                  @Value("${similarity.compact-threshold:0.2}") double compactThreshold,
+                                  MeterRegistry meterRegistry) {
+        this.profileStore = profileStore;
+        this.recommendationCache = recommendationCache;
+        this.maxLinks = maxLinks;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.offHeap = offHeap;
+        this.bootstrapBatchSize = bootstrapBatchSize;
+        this.compactThreshold = compactThreshold;
+        this.index = newIndex();
+        this.searchTimer = meterRegistry.timer("similarity.search");
+        this.compactions = meterRegistry.counter("similarity.index.compactions");
+        meterRegistry.gauge("similarity.index.size", this, SimilarProfilesService::size);
+        this.indexer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "similarity-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Profiles saved while the feed is being read queue up behind it, so the newest version of each is indexed last
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        indexer.execute(this::bootstrap);
+    }
+
+    public void index(StudentProfile studentProfile) {
+        UUID id = studentProfile.getId();
+        float[] vector = ProfileVectors.encode(studentProfile);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    indexer.execute(() -> add(id, vector));
+                }
+            });
+        } else {
+            indexer.execute(() -> add(id, vector));
+        }
+    }
+
+    // Up to k peers nearest the stored profile, closest first, or empty if the profile is not indexed
+    public Optional<List<SimilarProfileDTO>> similar(UUID id, int k) {
+        long start = System.nanoTime();
+        int[] nodes = new int[k + 1];
+        float[] distances = new float[k + 1];
+        List<UUID> peerIds = new ArrayList<>(k);
+        List<Float> peerDistances = new ArrayList<>(k);
+        lock.readLock().lock();
+        try {
+            Integer node = nodeById.get(id);
+            if (node == null) {
+                return Optional.empty();
+            }
+            // One extra result, since the profile itself is its own nearest point
+            int found = index.search(index.vector(node), k + 1, efSearch, nodes, distances);
+            for (int i = 0; i < found && peerIds.size() < k; i++) {
+                if (nodes[i] != node) {
+                    peerIds.add(idByNode[nodes[i]]);
+                    peerDistances.add(distances[i]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        List<SimilarProfileDTO> peers = new ArrayList<>(peerIds.size());
+        for (int i = 0; i < peerIds.size(); i++) {
+            float distance = peerDistances.get(i);
+            recommendationCache.get(peerIds.get(i)).ifPresent(peer -> peers.add(toSimilarProfile(peer, distance)));
+        }
+        return Optional.of(peers);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns once every update handed to the indexer so far has been applied, since it runs them in order
+    void awaitIdle(long timeout, TimeUnit unit) throws Exception {
+        indexer.submit(() -> { }).get(timeout, unit);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexer.shutdownNow();
+    }
+
+    void bootstrap() {
+        // Later saves reach the index through index(), so the feed is only read up to now
+        LocalDateTime until = LocalDateTime.now();
+        LocalDateTime updatedAt = FIRST_UPDATE;
+        UUID id = FIRST_ID;
+        try {
+            List<StudentProfile> batch;
+            do {
+                batch = profileStore.findUpdatedAfter(updatedAt, id, until, bootstrapBatchSize);
+                for (StudentProfile studentProfile : batch) {
+                    add(studentProfile.getId(), ProfileVectors.encode(studentProfile));
+                }
+                if (!batch.isEmpty()) {
+                    StudentProfile last = batch.get(batch.size() - 1);
+                    updatedAt = last.getUpdatedAt();
+                    id = last.getId();
+                }
+            } while (batch.size() == bootstrapBatchSize);
+            log.info("Indexed {} profiles for similarity search", size());
+        } catch (RuntimeException e) {
+            // Saves from here on are still indexed; only older profiles are missing from the results
+            log.warn("Could not index stored profiles for similarity search: {}", e.getMessage());
+        }
+    }
+
+    void add(UUID id, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            int node = index.add(vector);
+            Integer previous = nodeById.put(id, node);
+            if (previous != null) {
+                index.remove(previous);
+                idByNode[previous] = null;
+            }
+            if (node == idByNode.length) {
+                idByNode = Arrays.copyOf(idByNode, idByNode.length * 2);
+            }
+            idByNode[node] = id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (index.removed() > compactThreshold * (index.size() + index.removed())) {
+            compact();
+        }
+    }
+
+    // Rebuilds the graph from its live points. Only the indexer thread writes, so the rebuild reads the current graph
+    // without the lock and searches carry on against it until the swap
+    void compact() {
+        int nodes = index.size() + index.removed();
+        HnswIndex compacted = newIndex();
+        Map<UUID, Integer> compactedNodeById = new HashMap<>();
+        UUID[] compactedIdByNode = new UUID[Math.max(INITIAL_CAPACITY, index.size())];
+        for (int node = 0; node < nodes; node++) {
+            UUID id = idByNode[node];
+            if (id != null) {
+                int compactedNode = compacted.add(index.vector(node));
+                compactedNodeById.put(id, compactedNode);
+                compactedIdByNode[compactedNode] = id;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            index = compacted;
+            nodeById = compactedNodeById;
+            idByNode = compactedIdByNode;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        compactions.increment();
+        log.debug("Compacted the similarity index from {} to {} nodes", nodes, compacted.size());
+    }
+
+    private HnswIndex newIndex() {
+        return new HnswIndex(ProfileVectors.DIMENSIONS, maxLinks, efConstruction, offHeap, 1L);
+    }
+
+    private static SimilarProfileDTO toSimilarProfile(StudentProfileDTO peer, float squaredDistance) {
+        SimilarProfileDTO similar = new SimilarProfileDTO();
+        similar.setDistance(Math.sqrt(squaredDistance));
+        similar.setEducationLevel(peer.getEducationLevel());
+        similar.setOlResults(peer.getOlResults());
+        similar.setAlStream(peer.getAlStream());
+        similar.setAlResults(peer.getAlResults());
+        similar.setGpa(peer.getGpa());
+        similar.setCareerProbabilities(peer.getCareerProbabilities());
+        similar.setTopCareers(peer.getTopCareers());
+        return similar;
+    }
+}
@@ -0,0 +1,145 @@
+package com.nextstep.recommendations.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nextstep.recommendations.dto.BatchItemErrorDTO;
+import com.nextstep.recommendations.dto.BatchPredictionResponseDTO;
+import com.nextstep.recommendations.dto.StudentProfileDTO;
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.utils.Scorer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class StreamingPredictionService {
+
+    private final PredictionService predictionService;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final int microBatchSize;
+    private final int maxPendingBatches;
+    private final ThreadPoolExecutor persistenceExecutor;
+
+    @Autowired
+    public StreamingPredictionService(PredictionService predictionService, ObjectMapper objectMapper,
+                                      @Value("${predictions.stream.micro-batch-size:200}") int microBatchSize,
+                                      @Value("${predictions.stream.max-pending-batches:4}") int maxPendingBatches,
+                                      @Value("${predictions.stream.writer-threads:2}") int writerThreads) {
+        this.predictionService = predictionService;
+        this.reader = objectMapper.readerFor(StudentProfileDTO.class);
+        this.writer = objectMapper.writer();
+        this.microBatchSize = microBatchSize;
+        this.maxPendingBatches = maxPendingBatches;
+
+        // A full queue makes the submitting request thread write the batch itself, which stops it reading
+        // further input until the database catches up instead of buffering without limit
+        this.persistenceExecutor = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxPendingBatches), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public void scoreStream(InputStream in, OutputStream out) throws IOException {
+        Deque<Future<BatchPredictionResponseDTO>> pending = new ArrayDeque<>();
+        List<StudentProfileDTO> batch = new ArrayList<>(microBatchSize);
+        int batchStart = 0;
+        int index = 0;
+
+        try (MappingIterator<StudentProfileDTO> records = reader.readValues(in)) {
+            while (true) {
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    batch.add(records.nextValue());
+                    index++;
+                } catch (JsonParseException e) {
+                    // Malformed JSON cannot be resynchronized, so the rest of the stream is rejected
+                    writeLine(out, new BatchItemErrorDTO(index, null, e.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException e) {
+                    // A record that does not bind closes the current micro-batch so indexes stay aligned
+                    if (!batch.isEmpty()) {
+                        pending.add(submit(batch, batchStart));
+                        batch = new ArrayList<>(microBatchSize);
+                        drain(pending, out, maxPendingBatches);
+                    }
+                    writeLine(out, new BatchItemErrorDTO(index, null, e.getOriginalMessage()));
+                    batchStart = ++index;
+                    continue;
+                }
+
+                if (batch.size() == microBatchSize) {
+                    pending.add(submit(batch, batchStart));
+                    batch = new ArrayList<>(microBatchSize);
+                    batchStart = index;
+                    drain(pending, out, maxPendingBatches);
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            pending.add(submit(batch, batchStart));
+        }
+        drain(pending, out, 0);
+    }
+
+    private Future<BatchPredictionResponseDTO> submit(List<StudentProfileDTO> batch, int firstIndex) {
+        BatchPredictionResponseDTO response = new BatchPredictionResponseDTO();
+        List<Integer> indexes = new ArrayList<>(batch.size());
+        List<StudentProfile> scored = predictionService.scoreBatch(batch, firstIndex, indexes, response, Scorer.AUTO);
+        return persistenceExecutor.submit(() -> {
+            predictionService.persistChunk(scored, indexes, response);
+            return response;
+        });
+    }
+
+    private void drain(Deque<Future<BatchPredictionResponseDTO>> pending, OutputStream out, int keep) throws IOException {
+        // Results are written in submission order; waiting on the oldest batch bounds in-flight work per stream
+        while (pending.size() > keep || (!pending.isEmpty() && pending.peekFirst().isDone())) {
+            BatchPredictionResponseDTO response;
+            try {
+                response = pending.removeFirst().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while persisting predictions", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Persisting predictions failed", e.getCause());
+            }
+            for (StudentProfileDTO result : response.getResults()) {
+                writeLine(out, result);
+            }
+            for (BatchItemErrorDTO error : response.getErrors()) {
+                writeLine(out, error);
+            }
+        }
+        out.flush();
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(writer.writeValueAsBytes(value));
+        out.write('\n');
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persistenceExecutor.shutdown();
+    }
+}
@@ -0,0 +1,81 @@
+package com.nextstep.recommendations.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nextstep.recommendations.dto.TrainingJobDTO;
+import com.nextstep.recommendations.dto.TrainingReportDTO;
+import com.nextstep.recommendations.utils.Predictor;
+import com.nextstep.recommendations.utils.TrainingTarget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Training runs as background jobs so no request thread waits out a cross-validated run. Each job is kept, in a
+// bounded map of the most recent ones, as a snapshot that is replaced when the run finishes; publishing jobs reload
+// the predictor before they count as succeeded.
+@Component
+public class TrainingJobs {
+    private final TrainingService trainingService;
+    private final Predictor predictor;
+    private final Cache<UUID, TrainingJobDTO> jobs;
+
+    @Autowired
+    public TrainingJobs(TrainingService trainingService, Predictor predictor,
+                        @Value("${training.jobs.maximum-size:100}") long maximumSize) {
+        this.trainingService = trainingService;
+        this.predictor = predictor;
+        this.jobs = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    // Throws IllegalArgumentException for an unknown target before anything is queued
+    public TrainingJobDTO submit(String targetName, boolean publish) {
+        TrainingTarget target = TrainingTarget.parse(targetName);
+        TrainingJobDTO job = new TrainingJobDTO();
+        job.setId(UUID.randomUUID());
+        job.setTarget(target.name());
+        job.setPublish(publish);
+        job.setStatus(TrainingJobDTO.Status.RUNNING);
+        job.setSubmittedAt(LocalDateTime.now());
+        jobs.put(job.getId(), job);
+
+        // Routed models are picked up by the reload's router refresh, the default model only when published
+        trainingService.train(target.name(), publish)
+                .thenCompose(report -> publish ? predictor.reload().thenApply(version -> published(report))
+                        : CompletableFuture.completedFuture(report))
+                .whenComplete((report, failure) -> jobs.put(job.getId(), finished(job, report, failure)));
+        return job;
+    }
+
+    public Optional<TrainingJobDTO> find(UUID id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    private static TrainingReportDTO published(TrainingReportDTO report) {
+        report.setPublished(true);
+        return report;
+    }
+
+    private static TrainingJobDTO finished(TrainingJobDTO job, TrainingReportDTO report, Throwable failure) {
+        TrainingJobDTO finished = new TrainingJobDTO();
+        finished.setId(job.getId());
+        finished.setTarget(job.getTarget());
+        finished.setPublish(job.isPublish());
+        finished.setSubmittedAt(job.getSubmittedAt());
+        finished.setFinishedAt(LocalDateTime.now());
+        if (failure == null) {
+            finished.setStatus(TrainingJobDTO.Status.SUCCEEDED);
+            finished.setReport(report);
+        } else {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            finished.setStatus(TrainingJobDTO.Status.FAILED);
+            finished.setError(cause.getMessage());
+        }
+        return finished;
+    }
+}
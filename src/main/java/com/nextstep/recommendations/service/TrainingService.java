@@ -0,0 +1,240 @@
+package com.nextstep.recommendations.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextstep.recommendations.dto.TrainingReportDTO;
+import com.nextstep.recommendations.repository.ModelRegistryStore;
+import com.nextstep.recommendations.repository.TrainingDataRepository;
+import com.nextstep.recommendations.utils.FeatureStandardizer;
+import com.nextstep.recommendations.utils.ModelSchemaLoader;
+import com.nextstep.recommendations.utils.TrainingSetBuilder;
+import com.nextstep.recommendations.utils.TrainingTarget;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.classifiers.evaluation.AggregateableEvaluation;
+import weka.classifiers.evaluation.Evaluation;
+import weka.classifiers.meta.FilteredClassifier;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.Utils;
+import weka.filters.supervised.instance.SMOTE;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+// Trains versioned career models from the generated profile tables: features are standardized with parameters saved
+// next to the model, so serving scales requests the same way, SMOTE runs inside a FilteredClassifier, and the k
+// cross-validation folds train in parallel with the final full-data model on a fork-join pool.
+@Service
+public class TrainingService {
+    private static final Logger log = LoggerFactory.getLogger(TrainingService.class);
+
+    private final TrainingDataRepository trainingDataRepository;
+    private final Optional<ModelRegistryStore> modelRegistry;
+    private final Path modelDir;
+    private final String classifierSpec;
+    private final int folds;
+    private final int parallelism;
+    private final int seed;
+    private final double smotePercentage;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService trainingExecutor;
+
+    @Autowired
+    public TrainingService(TrainingDataRepository trainingDataRepository,
+                           Optional<ModelRegistryStore> modelRegistry,
+                           @Value("${model.dir}") String modelDir,
+                           @Value("${training.classifier:weka.classifiers.trees.J48 -C 0.25 -M 2}") String classifierSpec,
+                           @Value("${training.folds:10}") int folds,
+                           @Value("${training.parallelism:0}") int parallelism,
+                           @Value("${training.seed:1}") int seed,
+                           @Value("${training.smote.percentage:100}") double smotePercentage,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.trainingDataRepository = trainingDataRepository;
+        this.modelRegistry = modelRegistry;
+        this.modelDir = Path.of(modelDir);
+        this.classifierSpec = classifierSpec;
+        this.folds = folds;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.seed = seed;
+        this.smotePercentage = smotePercentage;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+
+        // One training run at a time; the run itself fans out over the fork-join pool
+        this.trainingExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "model-training");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<TrainingReportDTO> train(String targetName, boolean publish) {
+        TrainingTarget target = TrainingTarget.parse(targetName);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                TrainingSetBuilder builder = new TrainingSetBuilder(target);
+                trainingDataRepository.forEachLabelledProfile(target, builder::add);
+                log.info("Read {} generated profiles for training target {}", builder.size(), target);
+                return train(target, builder.build(), publish);
+            } catch (Exception e) {
+                meterRegistry.counter("training.failures", "target", target.name()).increment();
+                throw new IllegalStateException("Could not train model " + target, e);
+            }
+        }, trainingExecutor);
+    }
+
+    public TrainingReportDTO train(TrainingTarget target, Instances data, boolean publish) throws Exception {
+        if (data.numInstances() < 2) {
+            throw new IllegalArgumentException("Not enough generated profiles to train " + target + ": " + data.numInstances());
+        }
+        long start = System.nanoTime();
+        Classifier template = classifier();
+        int numFolds = Math.min(folds, data.numInstances());
+
+        // Stratify once on this thread; each fold then copies out its own train and test split
+        Instances shuffled = new Instances(data);
+        shuffled.randomize(new Random(seed));
+        shuffled.stratify(numFolds);
+
+        FeatureStandardizer standardizer = FeatureStandardizer.fit(data);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Classifier model;
+        AggregateableEvaluation evaluation = null;
+        try {
+            ForkJoinTask<Classifier> finalModel = pool.submit(() -> build(template, standardizer.apply(data)));
+            List<ForkJoinTask<Evaluation>> foldTasks = new ArrayList<>(numFolds);
+            for (int fold = 0; fold < numFolds; fold++) {
+                int current = fold;
+                foldTasks.add(pool.submit(() -> evaluateFold(template, shuffled, numFolds, current)));
+            }
+            for (ForkJoinTask<Evaluation> foldTask : foldTasks) {
+                Evaluation foldEvaluation = foldTask.get();
+                evaluation = evaluation == null ? new AggregateableEvaluation(foldEvaluation) : evaluation.aggregate(foldEvaluation);
+            }
+            evaluation.finalizeAggregation();
+            model = finalModel.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        long trainingMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        int version = target.nextVersion(modelDir);
+        TrainingReportDTO report = report(target, version, data, numFolds, evaluation, trainingMillis);
+        write(target, version, data, standardizer, model, report);
+        modelRegistry.ifPresent(registry -> registry.register(target.name(), target.alStream(), version, report.getModelFile()));
+        if (publish && target.name().equals(TrainingTarget.CAREER_PREDICTION)) {
+            publish(target, version);
+            report.setPublished(true);
+        }
+
+        meterRegistry.timer("training.duration", "target", target.name()).record(trainingMillis, TimeUnit.MILLISECONDS);
+        log.info("Trained {} v{} on {} profiles in {} ms: accuracy {}%, kappa {}", target, version, data.numInstances(),
+                trainingMillis, Utils.doubleToString(report.getAccuracy(), 2), Utils.doubleToString(report.getKappa(), 3));
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        trainingExecutor.shutdownNow();
+    }
+
+    // SMOTE sees standardized rows, so synthetic minority rows are interpolated on comparable scales
+    private Classifier classifier() throws Exception {
+        String[] options = Utils.splitOptions(classifierSpec);
+        String className = options[0];
+        options[0] = "";
+
+        SMOTE smote = new SMOTE();
+        smote.setRandomSeed(seed);
+        smote.setPercentage(smotePercentage);
+
+        FilteredClassifier classifier = new FilteredClassifier();
+        classifier.setFilter(smote);
+        classifier.setClassifier(AbstractClassifier.forName(className, options));
+        return classifier;
+    }
+
+    private static Classifier build(Classifier template, Instances train) throws Exception {
+        Classifier classifier = AbstractClassifier.makeCopy(template);
+        classifier.buildClassifier(train);
+        return classifier;
+    }
+
+    private Evaluation evaluateFold(Classifier template, Instances data, int numFolds, int fold) throws Exception {
+        Instances train = data.trainCV(numFolds, fold, new Random(seed + fold));
+        Instances test = data.testCV(numFolds, fold);
+
+        // Each fold is scaled by its own training split, as the final model is by the full data
+        FeatureStandardizer standardizer = FeatureStandardizer.fit(train);
+        Classifier classifier = build(template, standardizer.apply(train));
+        Evaluation evaluation = new Evaluation(train);
+        evaluation.evaluateModel(classifier, standardizer.apply(test));
+        return evaluation;
+    }
+
+    private TrainingReportDTO report(TrainingTarget target, int version, Instances data, int numFolds,
+                                     Evaluation evaluation, long trainingMillis) {
+        TrainingReportDTO report = new TrainingReportDTO();
+        report.setTarget(target.name());
+        report.setVersion(version);
+        report.setModelFile(modelDir.relativize(target.modelFile(modelDir, version)).toString());
+        report.setClassifier(classifierSpec);
+        report.setInstances(data.numInstances());
+        report.setFolds(numFolds);
+        report.setParallelism(parallelism);
+        report.setAccuracy(evaluation.pctCorrect());
+        report.setKappa(evaluation.kappa());
+        report.setWeightedFMeasure(evaluation.weightedFMeasure());
+        report.setWeightedAreaUnderROC(evaluation.weightedAreaUnderROC());
+        for (int i = 0; i < data.numClasses(); i++) {
+            report.getFMeasureByCareer().put(data.classAttribute().value(i), evaluation.fMeasure(i));
+        }
+        report.setTrainingMillis(trainingMillis);
+        return report;
+    }
+
+    // The model file is moved in last, so a router scan never sees a version without its header and scaling
+    private void write(TrainingTarget target, int version, Instances data, FeatureStandardizer standardizer,
+                       Classifier model, TrainingReportDTO report) throws Exception {
+        Path modelFile = target.modelFile(modelDir, version);
+        Files.createDirectories(modelFile.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(target.metricsFile(modelDir, version).toFile(), report);
+        SerializationHelper.write(target.schemaFile(modelDir, version).toString(), new Instances(data, 0));
+        standardizer.write(target.scalingFile(modelDir, version));
+
+        Path staging = modelFile.resolveSibling(modelFile.getFileName() + ".tmp");
+        SerializationHelper.write(staging.toString(), model);
+        Files.move(staging, modelFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Copies the version over the default model files; it serves after the next reload
+    private void publish(TrainingTarget target, int version) throws Exception {
+        Files.copy(target.schemaFile(modelDir, version), modelDir.resolve(ModelSchemaLoader.SCHEMA_FILE),
+                StandardCopyOption.REPLACE_EXISTING);
+        Files.copy(target.scalingFile(modelDir, version),
+                modelDir.resolve(TrainingTarget.CAREER_PREDICTION + FeatureStandardizer.EXTENSION),
+                StandardCopyOption.REPLACE_EXISTING);
+        Files.copy(target.modelFile(modelDir, version), modelDir.resolve(TrainingTarget.CAREER_PREDICTION + ".model"),
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+}
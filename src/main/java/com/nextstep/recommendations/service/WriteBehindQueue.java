@@ -0,0 +1,205 @@
+package com.nextstep.recommendations.service;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.repository.ProfileStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@ConditionalOnProperty(name = "predictions.persistence.mode", havingValue = "write-behind")
+public class WriteBehindQueue implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    private final ProfileStore profileStore;
+    private final BlockingQueue<StudentProfile> queue;
+    private final int flushSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+
+    private final Counter enqueued;
+    private final Counter written;
+    private final Counter failed;
+    private final Counter writtenInline;
+    private final Timer flushTimer;
+
+    private final ReadWriteLock accepting = new ReentrantReadWriteLock();
+    // Buffered or in-flight entries per student, so a newer prediction is never written ahead of an older one
+    private final ConcurrentMap<UUID, Integer> pending = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public WriteBehindQueue(ProfileStore profileStore, MeterRegistry meterRegistry,
+                            @Value("${predictions.write-behind.capacity:10000}") int capacity,
+                            @Value("${predictions.write-behind.flush-size:500}") int flushSize,
+                            @Value("${predictions.write-behind.flush-interval:200ms}") Duration flushInterval,
+                            @Value("${predictions.write-behind.offer-timeout:50ms}") Duration offerTimeout,
+                            @Value("${predictions.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.profileStore = profileStore;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.flushSize = flushSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+
+        Gauge.builder("predictions.write_behind.queue.depth", queue, BlockingQueue::size)
+                .description("Predictions waiting to be persisted")
+                .register(meterRegistry);
+        this.enqueued = meterRegistry.counter("predictions.write_behind.enqueued");
+        this.written = meterRegistry.counter("predictions.write_behind.written");
+        this.failed = meterRegistry.counter("predictions.write_behind.failed");
+        this.writtenInline = meterRegistry.counter("predictions.write_behind.written_inline");
+        this.flushTimer = meterRegistry.timer("predictions.write_behind.flush");
+    }
+
+    public void enqueue(StudentProfile studentProfile) throws InterruptedException {
+        // The read lock keeps stop() from closing the queue between the running check and the offer landing, which
+        // would leave the profile in a queue the writer has already finished draining
+        UUID id = studentProfile.getId();
+        accepting.readLock().lock();
+        try {
+            if (running) {
+                pending.merge(id, 1, Integer::sum);
+                if (queue.offer(studentProfile, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    enqueued.increment();
+                    return;
+                }
+                // An older prediction for this student is still buffered and its flush would overwrite an inline
+                // write, so this one waits for room behind it instead
+                if (pending.get(id) > 1) {
+                    queue.put(studentProfile);
+                    enqueued.increment();
+                    return;
+                }
+                release(id);
+            }
+        } finally {
+            accepting.readLock().unlock();
+        }
+        // A full buffer means the database is behind; writing inline slows callers instead of dropping data
+        profileStore.saveAll(List.of(studentProfile));
+        writtenInline.increment();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "prediction-write-behind");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        // Stop accepting work once in-flight offers have landed, then let the writer drain everything already
+        // buffered before the pool closes
+        accepting.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            accepting.writeLock().unlock();
+        }
+        try {
+            writer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.error("Write-behind shutdown timed out with {} predictions not persisted", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<StudentProfile> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                StudentProfile first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Fill the batch until it is full or the flush interval since its first element has passed
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < flushSize) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    StudentProfile next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                try {
+                    flush(batch);
+                } finally {
+                    batch.forEach(studentProfile -> release(studentProfile.getId()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void release(UUID id) {
+        pending.computeIfPresent(id, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void flush(List<StudentProfile> batch) {
+        // Only the latest prediction per student is written; an upsert batch may not touch a row twice
+        Map<UUID, StudentProfile> latest = new LinkedHashMap<>();
+        for (StudentProfile studentProfile : batch) {
+            latest.put(studentProfile.getId(), studentProfile);
+        }
+        List<StudentProfile> profiles = new ArrayList<>(latest.values());
+
+        try {
+            flushTimer.record(() -> profileStore.saveAll(profiles));
+            written.increment(profiles.size());
+        } catch (RuntimeException e) {
+            log.warn("Write-behind batch of {} failed, retrying individually: {}", profiles.size(), e.getMessage());
+            for (StudentProfile studentProfile : profiles) {
+                try {
+                    profileStore.saveAll(List.of(studentProfile));
+                    written.increment();
+                } catch (RuntimeException itemFailure) {
+                    failed.increment();
+                    log.error("Could not persist prediction for {}", studentProfile.getId(), itemFailure);
+                }
+            }
+        }
+    }
+}
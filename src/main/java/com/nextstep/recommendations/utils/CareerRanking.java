@@ -0,0 +1,48 @@
+package com.nextstep.recommendations.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Top-K selection over a probability distribution. Only the class indexes move, so a distribution shared with the
+// prediction cache is never reordered; with K no larger than a handful of careers, K selection passes beat a full sort.
+public final class CareerRanking {
+
+    private CareerRanking() {}
+
+    // Fills order with class indexes, the first K of them by descending probability (ties to the lower index), and
+    // returns how many were ranked
+    public static int rank(double[] probabilities, int[] order, int k) {
+        int n = probabilities.length;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        int ranked = k > 0 ? Math.min(k, n) : n;
+        for (int rank = 0; rank < ranked; rank++) {
+            int best = rank;
+            for (int i = rank + 1; i < n; i++) {
+                if (ranksAbove(probabilities, order[i], order[best])) {
+                    best = i;
+                }
+            }
+            int swap = order[rank];
+            order[rank] = order[best];
+            order[best] = swap;
+        }
+        return ranked;
+    }
+
+    // The K most probable careers in rank order
+    public static Map<String, Double> top(String[] careerNames, double[] probabilities, int k) {
+        int[] order = new int[probabilities.length];
+        int ranked = rank(probabilities, order, k);
+        Map<String, Double> top = new LinkedHashMap<>();
+        for (int i = 0; i < ranked; i++) {
+            top.put(careerNames[order[i]], probabilities[order[i]]);
+        }
+        return top;
+    }
+
+    private static boolean ranksAbove(double[] probabilities, int a, int b) {
+        return probabilities[a] > probabilities[b] || (probabilities[a] == probabilities[b] && a < b);
+    }
+}
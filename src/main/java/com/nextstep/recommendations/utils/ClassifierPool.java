@@ -0,0 +1,80 @@
+package com.nextstep.recommendations.utils;
+
+import weka.classifiers.Classifier;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ClassifierPool {
+    private final byte[] serializedModel;
+    private final Instances header;
+    private final int maxIdle;
+    private final ConcurrentLinkedQueue<Replica> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+
+    public ClassifierPool(byte[] serializedModel, Instances header, int maxIdle) throws Exception {
+        this.serializedModel = serializedModel;
+        this.header = header;
+        this.maxIdle = Math.max(1, maxIdle);
+
+        // Deserialize one replica eagerly so a corrupt model fails at startup, not on the first request
+        release(newReplica());
+    }
+
+    public Replica acquire() throws Exception {
+        Replica replica = idle.poll();
+        if (replica != null) {
+            idleCount.decrementAndGet();
+            return replica;
+        }
+        return newReplica();
+    }
+
+    public void release(Replica replica) {
+        // Replicas beyond the idle bound are dropped and left to the garbage collector
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(replica);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    public int getCreatedReplicas() {
+        return created.get();
+    }
+
+    // A deep copy outside the pool, which the caller owns
+    Classifier copy() throws Exception {
+        return (Classifier) SerializationHelper.read(new ByteArrayInputStream(serializedModel));
+    }
+
+    private Replica newReplica() throws Exception {
+        // Every replica is an independent deep copy, so mutable scratch state is never shared
+        Classifier classifier = copy();
+        created.incrementAndGet();
+        return new Replica(classifier, new EncodedInstance(header));
+    }
+
+    // A classifier copy plus the scratch instance it scores; pooled together so no per-thread state is needed
+    public static final class Replica {
+        private final Classifier classifier;
+        private final EncodedInstance instance;
+
+        private Replica(Classifier classifier, EncodedInstance instance) {
+            this.classifier = classifier;
+            this.instance = instance;
+        }
+
+        public Classifier classifier() {
+            return classifier;
+        }
+
+        EncodedInstance instance() {
+            return instance;
+        }
+    }
+}
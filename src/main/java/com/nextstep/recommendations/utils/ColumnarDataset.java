@@ -0,0 +1,311 @@
+package com.nextstep.recommendations.utils;
+
+import weka.core.Attribute;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+import weka.core.converters.ArffLoader;
+import weka.core.converters.ArffSaver;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Training data as one memory-mapped column of little-endian doubles per attribute, after a header holding the
+// relation, attribute types, nominal labels, class index and each numeric attribute's mean and standard deviation.
+// Opening a file reads only the header; values are paged in from the mapping as they are read.
+public final class ColumnarDataset {
+    private static final int MAGIC = 0x4E53434F; // "NSCO"
+    private static final int FORMAT_VERSION = 1;
+    private static final int ALIGNMENT = Double.BYTES;
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private final Instances header;
+    private final int numRows;
+    private final double[] means;
+    private final double[] stdDevs;
+    private final DoubleBuffer[] columns;
+
+    private ColumnarDataset(Instances header, int numRows, double[] means, double[] stdDevs, DoubleBuffer[] columns) {
+        this.header = header;
+        this.numRows = numRows;
+        this.means = means;
+        this.stdDevs = stdDevs;
+        this.columns = columns;
+    }
+
+    public static ColumnarDataset open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a columnar dataset");
+            }
+            int formatVersion = in.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported columnar dataset version " + formatVersion + " in " + file);
+            }
+            long dataOffset = in.readLong();
+            int numRows = in.readInt();
+            int numAttributes = in.readInt();
+            int classIndex = in.readInt();
+            String relation = in.readUTF();
+
+            ArrayList<Attribute> attributes = new ArrayList<>(numAttributes);
+            double[] means = new double[numAttributes];
+            double[] stdDevs = new double[numAttributes];
+            for (int i = 0; i < numAttributes; i++) {
+                String name = in.readUTF();
+                int numLabels = in.readInt();
+                if (numLabels < 0) {
+                    attributes.add(new Attribute(name));
+                } else {
+                    List<String> labels = new ArrayList<>(numLabels);
+                    for (int j = 0; j < numLabels; j++) {
+                        labels.add(in.readUTF());
+                    }
+                    attributes.add(new Attribute(name, labels));
+                }
+                means[i] = in.readDouble();
+                stdDevs[i] = in.readDouble();
+            }
+            Instances header = new Instances(relation, attributes, 0);
+            header.setClassIndex(classIndex);
+
+            // One mapping per column keeps each under the 2 GB limit of a single MappedByteBuffer
+            long columnBytes = (long) numRows * Double.BYTES;
+            DoubleBuffer[] columns = new DoubleBuffer[numAttributes];
+            for (int i = 0; i < numAttributes; i++) {
+                columns[i] = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset + i * columnBytes, columnBytes)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asDoubleBuffer();
+            }
+            return new ColumnarDataset(header, numRows, means, stdDevs, columns);
+        }
+    }
+
+    public static void write(Instances data, Path file) throws IOException {
+        Statistics statistics = new Statistics(data.numAttributes());
+        for (Instance instance : data) {
+            statistics.add(instance);
+        }
+        write(new Instances(data, 0), data.numInstances(), statistics, data.iterator(), file);
+    }
+
+    // Two streaming passes over the ARFF file: one for the row count and statistics, one to write the columns
+    public static void fromArff(Path arff, Path file) throws IOException {
+        ArffLoader loader = new ArffLoader();
+        loader.setFile(arff.toFile());
+        Instances structure = loader.getStructure();
+        Statistics statistics = new Statistics(structure.numAttributes());
+        int numRows = 0;
+        for (Instance instance; (instance = loader.getNextInstance(structure)) != null; numRows++) {
+            statistics.add(instance);
+        }
+
+        ArffLoader rows = new ArffLoader();
+        rows.setFile(arff.toFile());
+        Instances rowStructure = rows.getStructure();
+        rowStructure.setClassIndex(rowStructure.numAttributes() - 1);
+        write(rowStructure, numRows, statistics, new Iterator<>() {
+            private Instance next = rows.getNextInstance(rowStructure);
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Instance next() {
+                Instance current = next;
+                try {
+                    next = rows.getNextInstance(rowStructure);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return current;
+            }
+        }, file);
+    }
+
+    public void toArff(Path arff) throws IOException {
+        ArffSaver saver = new ArffSaver();
+        saver.setRetrieval(ArffSaver.INCREMENTAL);
+        saver.setInstances(new Instances(header, 0));
+        saver.setFile(arff.toFile());
+        Instances rows = toInstances();
+        for (Instance instance : rows) {
+            saver.writeIncremental(instance);
+        }
+        saver.writeIncremental(null);
+    }
+
+    // Rows are views over the mapped columns; a row copies its values only if something modifies it
+    public Instances toInstances() {
+        Instances instances = new Instances(header, numRows);
+        for (int row = 0; row < numRows; row++) {
+            instances.add(new ColumnarInstance(this, row));
+        }
+        return instances;
+    }
+
+    public Instances header() {
+        return header;
+    }
+
+    public int numRows() {
+        return numRows;
+    }
+
+    public int numAttributes() {
+        return columns.length;
+    }
+
+    public double value(int row, int attribute) {
+        return columns[attribute].get(row);
+    }
+
+    public DoubleBuffer column(int attribute) {
+        return columns[attribute].duplicate();
+    }
+
+    // NaN for nominal attributes and the class
+    public double mean(int attribute) {
+        return means[attribute];
+    }
+
+    public double stdDev(int attribute) {
+        return stdDevs[attribute];
+    }
+
+    private static void write(Instances header, int numRows, Statistics statistics, Iterator<Instance> rows, Path file)
+            throws IOException {
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(headerBytes);
+        writeHeader(out, header, numRows, statistics, 0L);
+        long dataOffset = align(headerBytes.size());
+        headerBytes.reset();
+        writeHeader(out, header, numRows, statistics, dataOffset);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(headerBytes.toByteArray()), 0);
+
+            // Rows arrive in order but land in different columns, so each column buffers and writes at its own offset
+            long columnBytes = (long) numRows * Double.BYTES;
+            int numAttributes = header.numAttributes();
+            ByteBuffer[] buffers = new ByteBuffer[numAttributes];
+            long[] positions = new long[numAttributes];
+            int bufferSize = Math.max(Double.BYTES, Math.min(WRITE_BUFFER, (int) Math.min(columnBytes, Integer.MAX_VALUE)));
+            for (int i = 0; i < numAttributes; i++) {
+                buffers[i] = ByteBuffer.allocate(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+                positions[i] = dataOffset + i * columnBytes;
+            }
+            int written = 0;
+            while (rows.hasNext()) {
+                Instance instance = rows.next();
+                for (int i = 0; i < numAttributes; i++) {
+                    buffers[i].putDouble(instance.value(i));
+                    if (!buffers[i].hasRemaining()) {
+                        positions[i] += flush(channel, buffers[i], positions[i]);
+                    }
+                }
+                written++;
+            }
+            if (written != numRows) {
+                throw new IOException("Expected " + numRows + " rows but read " + written);
+            }
+            for (int i = 0; i < numAttributes; i++) {
+                positions[i] += flush(channel, buffers[i], positions[i]);
+            }
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, Instances header, int numRows, Statistics statistics,
+                                    long dataOffset) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(dataOffset);
+        out.writeInt(numRows);
+        out.writeInt(header.numAttributes());
+        out.writeInt(header.classIndex());
+        out.writeUTF(header.relationName());
+        for (int i = 0; i < header.numAttributes(); i++) {
+            Attribute attribute = header.attribute(i);
+            if (!attribute.isNumeric() && !attribute.isNominal()) {
+                throw new IOException("Only numeric and nominal attributes can be stored: " + attribute.name());
+            }
+            out.writeUTF(attribute.name());
+            out.writeInt(attribute.isNominal() ? attribute.numValues() : -1);
+            for (int j = 0; attribute.isNominal() && j < attribute.numValues(); j++) {
+                out.writeUTF(attribute.value(j));
+            }
+            boolean standardized = attribute.isNumeric() && i != header.classIndex();
+            out.writeDouble(standardized ? statistics.mean(i) : Double.NaN);
+            out.writeDouble(standardized ? statistics.stdDev(i) : Double.NaN);
+        }
+        out.flush();
+    }
+
+    private static int flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int bytes = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return bytes;
+    }
+
+    private static long align(long offset) {
+        return (offset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    // Weighted mean and sample standard deviation per attribute, skipping missing values, as Weka's Standardize
+    // computes them
+    private static final class Statistics {
+        private final double[] weights;
+        private final double[] means;
+        private final double[] squares;
+
+        Statistics(int numAttributes) {
+            weights = new double[numAttributes];
+            means = new double[numAttributes];
+            squares = new double[numAttributes];
+        }
+
+        void add(Instance instance) {
+            double weight = instance.weight();
+            for (int i = 0; i < means.length; i++) {
+                double value = instance.value(i);
+                if (Utils.isMissingValue(value)) {
+                    continue;
+                }
+                weights[i] += weight;
+                double delta = value - means[i];
+                means[i] += weight * delta / weights[i];
+                squares[i] += weight * delta * (value - means[i]);
+            }
+        }
+
+        double mean(int attribute) {
+            return means[attribute];
+        }
+
+        double stdDev(int attribute) {
+            return weights[attribute] > 1 ? Math.sqrt(squares[attribute] / (weights[attribute] - 1)) : 0.0;
+        }
+    }
+}
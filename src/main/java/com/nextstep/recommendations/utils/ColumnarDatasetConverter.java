@@ -0,0 +1,28 @@
+package com.nextstep.recommendations.utils;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Converts training data between ARFF and the memory-mapped {@link ColumnarDataset} format; the direction follows
+ * the input's extension. Run it with
+ * {@code ./mvnw compile exec:java -Dexec.mainClass=com.nextstep.recommendations.utils.ColumnarDatasetConverter -Dexec.args="models/features.arff models/features.col"}.
+ */
+public class ColumnarDatasetConverter {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("usage: ColumnarDatasetConverter <input.arff|input.col> <output>");
+            System.exit(2);
+        }
+        Path input = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        long start = System.nanoTime();
+        if (input.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".arff")) {
+            ColumnarDataset.fromArff(input, output);
+        } else {
+            ColumnarDataset.open(input).toArff(output);
+        }
+        System.out.printf(Locale.ROOT, "converted %s to %s in %.1f s%n", input, output, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,152 @@
+package com.nextstep.recommendations.utils;
+
+import weka.core.AbstractInstance;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+
+// One row of a ColumnarDataset. Reads go straight to the mapped columns; the first modification copies the row into
+// m_AttValues, after which it behaves like a DenseInstance.
+final class ColumnarInstance extends AbstractInstance {
+    private final ColumnarDataset source;
+    private final int row;
+
+    ColumnarInstance(ColumnarDataset source, int row) {
+        this.source = source;
+        this.row = row;
+        this.m_Weight = 1.0;
+    }
+
+    private ColumnarInstance(ColumnarInstance instance) {
+        this(instance.source, instance.row);
+        this.m_Weight = instance.m_Weight;
+        this.m_Dataset = instance.m_Dataset;
+        this.m_AttValues = instance.m_AttValues != null ? instance.m_AttValues.clone() : null;
+    }
+
+    @Override
+    public double value(int attIndex) {
+        return m_AttValues != null ? m_AttValues[attIndex] : source.value(row, attIndex);
+    }
+
+    @Override
+    public double valueSparse(int indexOfIndex) {
+        return value(indexOfIndex);
+    }
+
+    @Override
+    public int index(int position) {
+        return position;
+    }
+
+    @Override
+    public int numAttributes() {
+        return m_AttValues != null ? m_AttValues.length : source.numAttributes();
+    }
+
+    @Override
+    public int numValues() {
+        return numAttributes();
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        if (m_AttValues != null) {
+            return m_AttValues.clone();
+        }
+        double[] values = new double[source.numAttributes()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = source.value(row, i);
+        }
+        return values;
+    }
+
+    @Override
+    public Object copy() {
+        return new ColumnarInstance(this);
+    }
+
+    @Override
+    public Instance copy(double[] values) {
+        DenseInstance result = new DenseInstance(m_Weight, values);
+        result.setDataset(m_Dataset);
+        return result;
+    }
+
+    @Override
+    public void setValue(int attIndex, double value) {
+        materialize()[attIndex] = value;
+    }
+
+    @Override
+    public void setValueSparse(int indexOfIndex, double value) {
+        setValue(indexOfIndex, value);
+    }
+
+    @Override
+    public void replaceMissingValues(double[] array) {
+        double[] values = materialize();
+        if (array == null || array.length != values.length) {
+            throw new IllegalArgumentException("Unequal number of attributes!");
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (isMissing(i)) {
+                values[i] = array[i];
+            }
+        }
+    }
+
+    @Override
+    public Instance mergeInstance(Instance inst) {
+        double[] values = new double[numAttributes() + inst.numAttributes()];
+        for (int i = 0; i < numAttributes(); i++) {
+            values[i] = value(i);
+        }
+        for (int i = 0; i < inst.numAttributes(); i++) {
+            values[numAttributes() + i] = inst.value(i);
+        }
+        return new DenseInstance(1.0, values);
+    }
+
+    @Override
+    protected void forceDeleteAttributeAt(int position) {
+        double[] values = materialize();
+        double[] remaining = new double[values.length - 1];
+        System.arraycopy(values, 0, remaining, 0, position);
+        System.arraycopy(values, position + 1, remaining, position, values.length - position - 1);
+        m_AttValues = remaining;
+    }
+
+    @Override
+    protected void forceInsertAttributeAt(int position) {
+        double[] values = materialize();
+        double[] extended = new double[values.length + 1];
+        System.arraycopy(values, 0, extended, 0, position);
+        extended[position] = weka.core.Utils.missingValue();
+        System.arraycopy(values, position, extended, position + 1, values.length - position);
+        m_AttValues = extended;
+    }
+
+    @Override
+    public String toStringNoWeight(int afterDecimalPoint) {
+        DenseInstance dense = new DenseInstance(m_Weight, toDoubleArray());
+        dense.setDataset(m_Dataset);
+        return dense.toStringNoWeight(afterDecimalPoint);
+    }
+
+    @Override
+    public String toStringNoWeight() {
+        return toStringNoWeight(AbstractInstance.s_numericAfterDecimalPoint);
+    }
+
+    @Override
+    public String getRevision() {
+        return "1";
+    }
+
+    private double[] materialize() {
+        if (m_AttValues == null) {
+            m_AttValues = toDoubleArray();
+        }
+        return m_AttValues;
+    }
+}
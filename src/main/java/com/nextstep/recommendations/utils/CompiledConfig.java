@@ -0,0 +1,134 @@
+package com.nextstep.recommendations.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// The Config maps compiled once into primitive tables indexed by subject/stream id, career id and grade value, so
+// generation and scoring do no map lookups, boxing or allocation. Subject and stream ids share one id space, matching
+// the keys of Config.CAREER_COMPATIBILITY_BONUS.
+public final class CompiledConfig {
+    public static final int NO_GRADE = -1;
+
+    // Grade values are the Config.GRADES ids: A=0 .. F=4
+    public static final int NUM_GRADES = Config.GRADES.size();
+    public static final int NUM_CAREERS = Config.CAREERS.size();
+    public static final int NUM_IDS = maxId() + 1;
+
+    public static final String[] CAREER_NAMES = namesById(Config.CAREERS, NUM_CAREERS);
+    public static final String[] OL_SUBJECT_NAMES = namesById(Config.OL_SUBJECTS, NUM_IDS);
+    public static final String[] AL_SUBJECT_NAMES = namesById(Config.AL_SUBJECTS, NUM_IDS);
+
+    // OL subjects in Config.OL_SUBJECTS iteration order, which fixes the order random draws are taken in
+    public static final int[] OL_SUBJECT_IDS = Config.OL_SUBJECTS.values().stream().mapToInt(Integer::intValue).toArray();
+    public static final int[] AL_SUBJECT_IDS = Config.AL_SUBJECTS.values().stream().mapToInt(Integer::intValue).sorted().toArray();
+    public static final int[][] AL_SUBJECT_IDS_BY_STREAM = new int[NUM_IDS][];
+
+    public static final int[] EDUCATION_LEVELS = new int[Config.EDUCATION_LEVEL_DIST.size()];
+    public static final double[] EDUCATION_LEVEL_CDF = new double[Config.EDUCATION_LEVEL_DIST.size()];
+
+    // Cumulative grade distributions, [subject id][grade value]
+    public static final double[][] OL_GRADE_CDF = new double[NUM_IDS][];
+    public static final double[][] AL_GRADE_CDF = new double[NUM_IDS][];
+
+    public static final double[] GRADE_WEIGHT = new double[NUM_GRADES];
+
+    public static final double[] CAREER_BASE = new double[NUM_CAREERS];
+    public static final double[][] CAREER_BONUS = new double[NUM_CAREERS][NUM_IDS];
+    public static final double[] Z_SCORE_BONUS = new double[NUM_CAREERS];
+    public static final double[] GPA_BONUS = new double[NUM_CAREERS];
+
+    static {
+        int level = 0;
+        double cumulative = 0.0;
+        for (Map.Entry<Integer, Double> entry : Config.EDUCATION_LEVEL_DIST.entrySet()) {
+            cumulative += entry.getValue();
+            EDUCATION_LEVELS[level] = entry.getKey();
+            EDUCATION_LEVEL_CDF[level++] = cumulative;
+        }
+
+        Config.AL_SUBJECTS_BY_STREAM.forEach((stream, subjects) ->
+                AL_SUBJECT_IDS_BY_STREAM[stream] = subjects.stream().mapToInt(Integer::intValue).toArray());
+
+        for (int subject : OL_SUBJECT_IDS) {
+            OL_GRADE_CDF[subject] = olGradeCdf(Config.SUBJECT_DIFFICULTY.get(subject));
+        }
+        Config.GRADE_DISTRIBUTIONS.forEach((subject, distribution) -> {
+            double[] probabilities = new double[NUM_GRADES];
+            distribution.forEach((grade, probability) -> probabilities[Config.GRADES.get(grade)] = probability);
+            AL_GRADE_CDF[subject] = cumulate(probabilities);
+        });
+
+        for (int grade = 0; grade < NUM_GRADES; grade++) {
+            GRADE_WEIGHT[grade] = 1.0 - (grade * 0.2);
+        }
+
+        for (int career = 0; career < NUM_CAREERS; career++) {
+            CAREER_BASE[career] = Config.CAREER_COMPATIBILITY.get(career);
+            for (Map.Entry<Integer, Double> entry : Config.CAREER_COMPATIBILITY_BONUS.get(career).entrySet()) {
+                if (entry.getKey() == Config.Z_SCORE_FACTOR) {
+                    Z_SCORE_BONUS[career] = entry.getValue();
+                } else if (entry.getKey() == Config.GPA_FACTOR) {
+                    GPA_BONUS[career] = entry.getValue();
+                } else {
+                    CAREER_BONUS[career][entry.getKey()] = entry.getValue();
+                }
+            }
+        }
+    }
+
+    private CompiledConfig() {}
+
+    // Index of the first cumulative bound at or above rand; falls back to the last entry like the map walks did
+    public static int sample(double[] cdf, double rand) {
+        for (int i = 0; i < cdf.length; i++) {
+            if (rand <= cdf[i]) {
+                return i;
+            }
+        }
+        return cdf.length - 1;
+    }
+
+    // OL grades skew towards the lower grades as difficulty rises, renormalized to sum to one
+    private static double[] olGradeCdf(double difficulty) {
+        double[] weights = {
+                0.25 * (1 - difficulty),
+                0.35 * (1 - difficulty),
+                0.25 * (1 + difficulty),
+                0.1 * (1 + difficulty),
+                0.05 * (1 + difficulty)
+        };
+        // Summed the way the original stream-based normalization did, so the bounds match it bit for bit
+        double total = Arrays.stream(weights).sum();
+        for (int grade = 0; grade < weights.length; grade++) {
+            weights[grade] /= total;
+        }
+        return cumulate(weights);
+    }
+
+    private static double[] cumulate(double[] probabilities) {
+        double[] cdf = new double[probabilities.length];
+        double cumulative = 0.0;
+        for (int i = 0; i < probabilities.length; i++) {
+            cumulative += probabilities[i];
+            cdf[i] = cumulative;
+        }
+        return cdf;
+    }
+
+    private static int maxId() {
+        List<Integer> ids = new ArrayList<>();
+        ids.addAll(Config.OL_SUBJECTS.values());
+        ids.addAll(Config.AL_STREAMS.values());
+        ids.addAll(Config.AL_SUBJECTS.values());
+        return Collections.max(ids);
+    }
+
+    private static String[] namesById(Map<String, Integer> ids, int size) {
+        String[] names = new String[size];
+        ids.forEach((name, id) -> names[id] = name);
+        return names;
+    }
+}
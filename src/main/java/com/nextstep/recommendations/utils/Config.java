@@ -1,4 +1,4 @@
-package com.nextstep.recommendations.src;
+package com.nextstep.recommendations.utils;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -0,0 +1,17 @@
+package com.nextstep.recommendations.utils;
+
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+// A reusable instance whose backing array the encoder writes in place
+final class EncodedInstance extends DenseInstance {
+
+    EncodedInstance(Instances dataset) {
+        super(1.0, new double[dataset.numAttributes()]);
+        setDataset(dataset);
+    }
+
+    double[] values() {
+        return m_AttValues;
+    }
+}
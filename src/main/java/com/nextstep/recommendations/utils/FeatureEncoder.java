@@ -0,0 +1,110 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import weka.core.Attribute;
+import weka.core.Instances;
+import weka.core.Utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class FeatureEncoder {
+    private static final String OL_PREFIX = "OL_subject_";
+    private static final String AL_PREFIX = "AL_subject_";
+    private static final String SCORE_SUFFIX = "_score";
+
+    private final int numAttributes;
+    private final int educationLevelSlot;
+    private final int alStreamSlot;
+    private final int gpaSlot;
+    private final Map<String, Integer> olSlots = new HashMap<>();
+    private final Map<String, Integer> alSlots = new HashMap<>();
+    private final FeatureStandardizer standardizer;
+
+    public FeatureEncoder(Instances header) {
+        this(header, null);
+    }
+
+    public FeatureEncoder(Instances header, FeatureStandardizer standardizer) {
+        if (standardizer != null && standardizer.numAttributes() != header.numAttributes()) {
+            throw new IllegalArgumentException("Standardization covers " + standardizer.numAttributes()
+                    + " attributes but the model has " + header.numAttributes());
+        }
+        this.standardizer = standardizer;
+        this.numAttributes = header.numAttributes();
+        this.educationLevelSlot = slotOf(header, "education_level");
+        this.alStreamSlot = slotOf(header, "AL_stream");
+        this.gpaSlot = slotOf(header, "gpa");
+
+        // Resolve every subject column once so requests can map DTO keys straight to slots
+        for (int i = 0; i < header.numAttributes(); i++) {
+            String name = header.attribute(i).name();
+            if (!name.endsWith(SCORE_SUFFIX)) {
+                continue;
+            }
+            if (name.startsWith(OL_PREFIX)) {
+                olSlots.put(name.substring(OL_PREFIX.length(), name.length() - SCORE_SUFFIX.length()), i);
+            } else if (name.startsWith(AL_PREFIX)) {
+                alSlots.put(name.substring(AL_PREFIX.length(), name.length() - SCORE_SUFFIX.length()), i);
+            }
+        }
+    }
+
+    public int numAttributes() {
+        return numAttributes;
+    }
+
+    // Returns how many result subjects had no column in the model and were left out
+    public int encode(StudentProfile studentProfile, double[] values) {
+        Arrays.fill(values, Utils.missingValue());
+
+        // Set education level
+        if (educationLevelSlot >= 0) {
+            values[educationLevelSlot] = studentProfile.getEducationLevel();
+        }
+
+        // Set OL results
+        int unknownSubjects = encodeResults(studentProfile.getOlResults(), olSlots, values);
+
+        // Set AL stream (if available)
+        if (alStreamSlot >= 0 && studentProfile.getAlStream() != null) {
+            values[alStreamSlot] = studentProfile.getAlStream();
+        }
+
+        // Set AL results (if available)
+        unknownSubjects += encodeResults(studentProfile.getAlResults(), alSlots, values);
+
+        // Set GPA (if available)
+        if (gpaSlot >= 0 && studentProfile.getGpa() != null) {
+            values[gpaSlot] = studentProfile.getGpa();
+        }
+
+        // Scale into the space the model was trained in
+        if (standardizer != null) {
+            standardizer.apply(values);
+        }
+        return unknownSubjects;
+    }
+
+    private static int encodeResults(Map<String, Double> results, Map<String, Integer> slots, double[] values) {
+        if (results == null) {
+            return 0;
+        }
+        int unknown = 0;
+        for (Map.Entry<String, Double> entry : results.entrySet()) {
+            Integer slot = slots.get(entry.getKey());
+            if (slot == null) {
+                unknown++;
+            } else if (entry.getValue() != null) {
+                values[slot] = entry.getValue();
+            }
+        }
+        return unknown;
+    }
+
+    private static int slotOf(Instances header, String name) {
+        Attribute attribute = header.attribute(name);
+        return attribute != null ? attribute.index() : -1;
+    }
+}
@@ -0,0 +1,83 @@
+package com.nextstep.recommendations.utils;
+
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Weka's Standardize filter folded into one multiply-add per feature: value * scale + offset, where
+// scale = 1 / stdDev and offset = -mean / stdDev. The parameters are fitted on the training data and saved next to the
+// model, so serving standardizes exactly as training did without running a filter. Missing values are NaN and stay
+// missing through the multiply-add.
+public final class FeatureStandardizer implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final String EXTENSION = ".scaling";
+
+    private final double[] scales;
+    private final double[] offsets;
+
+    private FeatureStandardizer(double[] scales, double[] offsets) {
+        this.scales = scales;
+        this.offsets = offsets;
+    }
+
+    // Same statistics as Standardize: weighted mean and sample standard deviation of every numeric non-class
+    // attribute; a constant attribute is only centred, everything else passes through unchanged
+    public static FeatureStandardizer fit(Instances data) {
+        int numAttributes = data.numAttributes();
+        double[] scales = new double[numAttributes];
+        double[] offsets = new double[numAttributes];
+        for (int i = 0; i < numAttributes; i++) {
+            scales[i] = 1.0;
+            if (i == data.classIndex() || !data.attribute(i).isNumeric()) {
+                continue;
+            }
+            double mean = data.meanOrMode(i);
+            double stdDev = Math.sqrt(data.variance(i));
+            if (stdDev > 0) {
+                scales[i] = 1.0 / stdDev;
+                offsets[i] = -mean / stdDev;
+            } else {
+                offsets[i] = -mean;
+            }
+        }
+        return new FeatureStandardizer(scales, offsets);
+    }
+
+    // The parameters saved beside a model, or null for a model trained on unscaled features
+    public static FeatureStandardizer read(Path file) throws Exception {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        return (FeatureStandardizer) SerializationHelper.read(file.toString());
+    }
+
+    public void write(Path file) throws Exception {
+        SerializationHelper.write(file.toString(), this);
+    }
+
+    public int numAttributes() {
+        return scales.length;
+    }
+
+    public void apply(double[] values) {
+        for (int i = 0; i < scales.length; i++) {
+            values[i] = Math.fma(values[i], scales[i], offsets[i]);
+        }
+    }
+
+    public Instances apply(Instances data) {
+        Instances standardized = new Instances(data, data.numInstances());
+        for (Instance instance : data) {
+            double[] values = instance.toDoubleArray();
+            apply(values);
+            standardized.add(new DenseInstance(instance.weight(), values));
+        }
+        return standardized;
+    }
+}
@@ -0,0 +1,138 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+
+// Rule-based career scoring: base compatibility plus OL/AL/z-score/GPA/stream bonuses, normalized. It needs no model,
+// so it answers when the classifier is missing, failing or too slow.
+@Component
+public class HeuristicScorer {
+    public static final String VERSION = "heuristic";
+    public static final int NO_STREAM = -1;
+
+    private static final int AL_LEVEL = Config.EDUCATION_LEVELS.get("AL");
+    private static final int UNI_LEVEL = Config.EDUCATION_LEVELS.get("UNI");
+
+    // Profiles carry subject ids as string keys and grade values (A=0 .. F=4); the API has no z-score, so it scores as 0
+    public double[] score(StudentProfile studentProfile) {
+        int[] olGrades = toGrades(studentProfile.getOlResults());
+        int[] alGrades = toGrades(studentProfile.getAlResults());
+        Integer alStream = studentProfile.getAlStream();
+        Double gpa = studentProfile.getGpa();
+
+        double[] probabilities = new double[CompiledConfig.NUM_CAREERS];
+        calculateProbabilities(studentProfile.getEducationLevel(), olGrades, alGrades,
+                alStream != null && alStream >= 0 && alStream < CompiledConfig.NUM_IDS ? alStream : NO_STREAM,
+                0.0, gpa != null ? gpa : 0.0, probabilities);
+        return probabilities;
+    }
+
+    public String[] careerNames() {
+        return CompiledConfig.CAREER_NAMES;
+    }
+
+    // Scores into the caller's array; grade arrays are indexed by subject id and hold NO_GRADE where absent
+    public static void calculateProbabilities(int educationLevel, int[] olGrades, int[] alGrades, int alStream,
+                                              double zScore, double gpa, double[] probabilities) {
+        for (int career = 0; career < CompiledConfig.NUM_CAREERS; career++) {
+            double probability = CompiledConfig.CAREER_BASE[career] + calculateOLCareerBonus(career, olGrades);
+            if (educationLevel >= AL_LEVEL) {
+                probability += calculateALCareerBonus(career, alGrades)
+                        + calculateZScoreBonus(career, zScore)
+                        + calculateStreamBonus(career, alStream);
+            }
+            if (educationLevel == UNI_LEVEL) {
+                probability += calculateGPABonus(career, gpa);
+            }
+            probabilities[career] = probability;
+        }
+        normalizeProbabilities(probabilities);
+    }
+
+    static double calculateOLCareerBonus(int career, int[] olGrades) {
+        double bonus = 0.0;
+        double[] careerBonus = CompiledConfig.CAREER_BONUS[career];
+        for (int subject : CompiledConfig.OL_SUBJECT_IDS) {
+            int grade = olGrades[subject];
+            if (grade != CompiledConfig.NO_GRADE) {
+                bonus += careerBonus[subject] * CompiledConfig.GRADE_WEIGHT[grade];
+            }
+        }
+        return bonus;
+    }
+
+    static double calculateALCareerBonus(int career, int[] alGrades) {
+        double bonus = 0.0;
+        if (alGrades == null) return bonus;
+        double[] careerBonus = CompiledConfig.CAREER_BONUS[career];
+        for (int subject : CompiledConfig.AL_SUBJECT_IDS) {
+            int grade = alGrades[subject];
+            if (grade != CompiledConfig.NO_GRADE) {
+                bonus += careerBonus[subject] * CompiledConfig.GRADE_WEIGHT[grade];
+            }
+        }
+        return bonus;
+    }
+
+    static double calculateStreamBonus(int career, int alStream) {
+        if (alStream == NO_STREAM) return 0.0;
+        return CompiledConfig.CAREER_BONUS[career][alStream];
+    }
+
+    static double calculateZScoreBonus(int career, double zScore) {
+        return CompiledConfig.Z_SCORE_BONUS[career] * zScore;
+    }
+
+    static double calculateGPABonus(int career, double gpa) {
+        return CompiledConfig.GPA_BONUS[career] * gpa;
+    }
+
+    private static void normalizeProbabilities(double[] probabilities) {
+        double total = 0.0;
+        for (double probability : probabilities) {
+            total += probability;
+        }
+        for (int i = 0; i < probabilities.length; i++) {
+            probabilities[i] /= total;
+        }
+    }
+
+    // Unknown subject ids and grades outside A..F are ignored, as the model encoder ignores unknown subjects
+    static int[] toGrades(Map<String, Double> results) {
+        int[] grades = new int[CompiledConfig.NUM_IDS];
+        Arrays.fill(grades, CompiledConfig.NO_GRADE);
+        if (results == null) {
+            return grades;
+        }
+        for (Map.Entry<String, Double> entry : results.entrySet()) {
+            int subject = parseId(entry.getKey());
+            Double value = entry.getValue();
+            if (subject < 0 || subject >= CompiledConfig.NUM_IDS || value == null) {
+                continue;
+            }
+            long grade = Math.round(value);
+            if (grade >= 0 && grade < CompiledConfig.NUM_GRADES) {
+                grades[subject] = (int) grade;
+            }
+        }
+        return grades;
+    }
+
+    private static int parseId(String key) {
+        if (key == null || key.isEmpty() || key.length() > 4) {
+            return -1;
+        }
+        int id = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+}
@@ -0,0 +1,421 @@
+package com.nextstep.recommendations.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+// Approximate nearest-neighbour search by squared Euclidean distance over a hierarchical navigable small world graph
+// (Malkov and Yashunin). Vectors are packed into one float buffer, on or off heap, and links into int arrays: layer 0
+// holds every node, each higher layer a geometrically shrinking sample that routes a search towards its target.
+// Removed nodes stay in the graph as waypoints but are never returned. Not thread-safe: callers serialize adds and
+// removes against searches.
+public final class HnswIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int dimensions;
+    private final int maxLinks;
+    private final int maxLinks0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final boolean offHeap;
+    private final SplittableRandom random;
+    private final BitSet removed = new BitSet();
+    private final ThreadLocal<Visited> visited = ThreadLocal.withInitial(Visited::new);
+
+    private FloatBuffer vectors;
+    private int[] levels;
+    // Per node: a link count followed by maxLinks0 slots
+    private int[] links0;
+    // Per node above layer 0: for each layer from 1 up, a link count followed by maxLinks slots
+    private int[][] upperLinks;
+    private int size;
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    public HnswIndex(int dimensions, int maxLinks, int efConstruction, boolean offHeap, long seed) {
+        this.dimensions = dimensions;
+        this.maxLinks = maxLinks;
+        this.maxLinks0 = 2 * maxLinks;
+        this.efConstruction = Math.max(efConstruction, maxLinks);
+        this.levelMultiplier = 1.0 / Math.log(maxLinks);
+        this.offHeap = offHeap;
+        this.random = new SplittableRandom(seed);
+        this.vectors = allocate(INITIAL_CAPACITY * dimensions);
+        this.levels = new int[INITIAL_CAPACITY];
+        this.links0 = new int[INITIAL_CAPACITY * (maxLinks0 + 1)];
+        this.upperLinks = new int[INITIAL_CAPACITY][];
+    }
+
+    // Nodes are numbered in insertion order
+    public int add(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        int node = size;
+        ensureCapacity(node + 1);
+        vectors.put(node * dimensions, vector);
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        levels[node] = level;
+        if (level > 0) {
+            upperLinks[node] = new int[level * (maxLinks + 1)];
+        }
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLevel = level;
+            return node;
+        }
+
+        int nearest = entryPoint;
+        for (int layer = topLevel; layer > level; layer--) {
+            nearest = greedyClosest(vector, nearest, layer);
+        }
+        for (int layer = Math.min(level, topLevel); layer >= 0; layer--) {
+            Heap candidates = searchLayer(vector, nearest, efConstruction, layer);
+            int[] sorted = candidates.drainAscending();
+            int[] neighbours = selectNeighbours(node, sorted, maxLinks(layer));
+            setLinks(node, layer, neighbours, neighbours.length);
+            for (int neighbour : neighbours) {
+                link(neighbour, node, layer);
+            }
+            nearest = sorted[0];
+        }
+        if (level > topLevel) {
+            topLevel = level;
+            entryPoint = node;
+        }
+        return node;
+    }
+
+    public void remove(int node) {
+        removed.set(node);
+    }
+
+    public boolean isRemoved(int node) {
+        return removed.get(node);
+    }
+
+    public int size() {
+        return size - removed.cardinality();
+    }
+
+    // Removed nodes still held in the graph
+    public int removed() {
+        return removed.cardinality();
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public float[] vector(int node) {
+        float[] vector = new float[dimensions];
+        vectors.get(node * dimensions, vector);
+        return vector;
+    }
+
+    // Fills nodes and distances with up to k live nodes nearest the query, closest first, and returns how many;
+    // ef trades recall for time and is raised to k if lower
+    public int search(float[] query, int k, int ef, int[] nodes, float[] distances) {
+        if (entryPoint < 0 || k <= 0) {
+            return 0;
+        }
+        int nearest = entryPoint;
+        for (int layer = topLevel; layer > 0; layer--) {
+            nearest = greedyClosest(query, nearest, layer);
+        }
+        Heap results = searchLayer(query, nearest, Math.max(ef, k), 0);
+        int[] sorted = results.drainAscending();
+        int found = 0;
+        for (int i = 0; i < sorted.length && found < k; i++) {
+            if (!removed.get(sorted[i])) {
+                nodes[found] = sorted[i];
+                distances[found] = distance(query, sorted[i]);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private int greedyClosest(float[] query, int start, int layer) {
+        int closest = start;
+        float closestDistance = distance(query, start);
+        for (boolean improved = true; improved; ) {
+            improved = false;
+            int[] links = links(closest, layer);
+            int offset = offset(closest, layer);
+            for (int i = 1; i <= links[offset]; i++) {
+                int candidate = links[offset + i];
+                float candidateDistance = distance(query, candidate);
+                if (candidateDistance < closestDistance) {
+                    closest = candidate;
+                    closestDistance = candidateDistance;
+                    improved = true;
+                }
+            }
+        }
+        return closest;
+    }
+
+    // Best-first search from the entry node; returns the ef closest nodes found as a max-heap on distance
+    private Heap searchLayer(float[] query, int start, int ef, int layer) {
+        Visited seen = visited.get().reset(size);
+        Heap candidates = new Heap(ef * 2, false);
+        Heap results = new Heap(ef + 1, true);
+        float startDistance = distance(query, start);
+        seen.mark(start);
+        candidates.push(start, startDistance);
+        results.push(start, startDistance);
+
+        while (candidates.size() > 0) {
+            float candidateDistance = candidates.peekDistance();
+            if (results.size() >= ef && candidateDistance > results.peekDistance()) {
+                break;
+            }
+            int candidate = candidates.pop();
+            int[] links = links(candidate, layer);
+            int offset = offset(candidate, layer);
+            for (int i = 1; i <= links[offset]; i++) {
+                int neighbour = links[offset + i];
+                if (!seen.mark(neighbour)) {
+                    continue;
+                }
+                float neighbourDistance = distance(query, neighbour);
+                if (results.size() < ef || neighbourDistance < results.peekDistance()) {
+                    candidates.push(neighbour, neighbourDistance);
+                    results.push(neighbour, neighbourDistance);
+                    if (results.size() > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    // The paper's heuristic: a candidate is kept only if it is closer to the node than to any neighbour already kept,
+    // which spreads links across directions; remaining slots are then filled with the closest skipped candidates
+    private int[] selectNeighbours(int node, int[] sortedCandidates, int limit) {
+        int[] selected = new int[Math.min(limit, sortedCandidates.length)];
+        boolean[] taken = new boolean[sortedCandidates.length];
+        int count = 0;
+        for (int i = 0; i < sortedCandidates.length && count < selected.length; i++) {
+            int candidate = sortedCandidates[i];
+            if (candidate == node) {
+                taken[i] = true;
+                continue;
+            }
+            float toNode = distance(node, candidate);
+            boolean diverse = true;
+            for (int j = 0; j < count && diverse; j++) {
+                diverse = distance(selected[j], candidate) >= toNode;
+            }
+            if (diverse) {
+                selected[count++] = candidate;
+                taken[i] = true;
+            }
+        }
+        for (int i = 0; i < sortedCandidates.length && count < selected.length; i++) {
+            if (!taken[i]) {
+                selected[count++] = sortedCandidates[i];
+            }
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    // Adds a back link, re-selecting the node's neighbours when its list is already full
+    private void link(int node, int neighbour, int layer) {
+        int[] links = links(node, layer);
+        int offset = offset(node, layer);
+        int count = links[offset];
+        int limit = maxLinks(layer);
+        if (count < limit) {
+            links[offset + count + 1] = neighbour;
+            links[offset]++;
+            return;
+        }
+
+        Heap candidates = new Heap(count + 1, true);
+        for (int i = 1; i <= count; i++) {
+            candidates.push(links[offset + i], distance(node, links[offset + i]));
+        }
+        candidates.push(neighbour, distance(node, neighbour));
+        int[] neighbours = selectNeighbours(node, candidates.drainAscending(), limit);
+        setLinks(node, layer, neighbours, neighbours.length);
+    }
+
+    private void setLinks(int node, int layer, int[] neighbours, int count) {
+        int[] links = links(node, layer);
+        int offset = offset(node, layer);
+        links[offset] = count;
+        System.arraycopy(neighbours, 0, links, offset + 1, count);
+    }
+
+    private int[] links(int node, int layer) {
+        return layer == 0 ? links0 : upperLinks[node];
+    }
+
+    private int offset(int node, int layer) {
+        return layer == 0 ? node * (maxLinks0 + 1) : (layer - 1) * (maxLinks + 1);
+    }
+
+    private int maxLinks(int layer) {
+        return layer == 0 ? maxLinks0 : maxLinks;
+    }
+
+    private float distance(float[] query, int node) {
+        int base = node * dimensions;
+        float sum = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            float difference = query[i] - vectors.get(base + i);
+            sum += difference * difference;
+        }
+        return sum;
+    }
+
+    private float distance(int a, int b) {
+        int baseA = a * dimensions;
+        int baseB = b * dimensions;
+        float sum = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            float difference = vectors.get(baseA + i) - vectors.get(baseB + i);
+            sum += difference * difference;
+        }
+        return sum;
+    }
+
+    private void ensureCapacity(int nodes) {
+        if (nodes <= levels.length) {
+            return;
+        }
+        int capacity = Math.max(nodes, levels.length * 2);
+        FloatBuffer grown = allocate(capacity * dimensions);
+        grown.put(0, vectors, 0, size * dimensions);
+        vectors = grown;
+        levels = Arrays.copyOf(levels, capacity);
+        links0 = Arrays.copyOf(links0, capacity * (maxLinks0 + 1));
+        upperLinks = Arrays.copyOf(upperLinks, capacity);
+    }
+
+    private FloatBuffer allocate(int floats) {
+        return offHeap
+                ? ByteBuffer.allocateDirect(floats * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer()
+                : FloatBuffer.allocate(floats);
+    }
+
+    // Visited marks per search thread, cleared in O(1) by bumping the epoch
+    private static final class Visited {
+        private int[] marks = new int[0];
+        private int epoch;
+
+        Visited reset(int nodes) {
+            if (marks.length < nodes) {
+                marks = new int[Math.max(nodes, marks.length * 2)];
+                epoch = 0;
+            }
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+            return this;
+        }
+
+        // True the first time a node is seen in this search
+        boolean mark(int node) {
+            if (marks[node] == epoch) {
+                return false;
+            }
+            marks[node] = epoch;
+            return true;
+        }
+    }
+
+    // Binary heap of (node, distance) in parallel primitive arrays; a max-heap keeps the worst result on top
+    private static final class Heap {
+        private final boolean max;
+        private int[] nodes;
+        private float[] distances;
+        private int size;
+
+        Heap(int capacity, boolean max) {
+            this.max = max;
+            this.nodes = new int[Math.max(capacity, 4)];
+            this.distances = new float[nodes.length];
+        }
+
+        int size() {
+            return size;
+        }
+
+        float peekDistance() {
+            return distances[0];
+        }
+
+        void push(int node, float distance) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!above(distance, distances[parent])) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                distances[i] = distances[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            distances[i] = distance;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            float lastDistance = distances[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && above(distances[child + 1], distances[child])) {
+                    child++;
+                }
+                if (!above(distances[child], lastDistance)) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            distances[i] = lastDistance;
+            return top;
+        }
+
+        // Empties the heap into an array ordered from closest to farthest
+        int[] drainAscending() {
+            int[] sorted = new int[size];
+            if (max) {
+                for (int i = sorted.length - 1; i >= 0; i--) {
+                    sorted[i] = pop();
+                }
+            } else {
+                for (int i = 0; i < sorted.length; i++) {
+                    sorted[i] = pop();
+                }
+            }
+            return sorted;
+        }
+
+        private boolean above(float a, float b) {
+            return max ? a > b : a < b;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.nextstep.recommendations.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.Utils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Everything one model version needs to score; immutable so a swap is a single reference write
+final class LoadedModel {
+    private static final Logger log = LoggerFactory.getLogger(LoadedModel.class);
+
+    static final String MODEL_FILE = "career_prediction.model";
+    static final String SCALING_FILE = "career_prediction" + FeatureStandardizer.EXTENSION;
+
+    private final long version;
+    private final String versionLabel;
+    private final Instances header;
+    private final FeatureEncoder encoder;
+    private final String[] careerNames;
+    private final ClassifierPool pool;
+    private final ModelSchemaLoader.Source schemaSource;
+
+    private LoadedModel(long version, String versionLabel, Instances header, FeatureStandardizer standardizer,
+                        ClassifierPool pool, ModelSchemaLoader.Source schemaSource) {
+        this.version = version;
+        this.versionLabel = versionLabel;
+        this.header = header;
+        this.encoder = new FeatureEncoder(header, standardizer);
+        this.careerNames = new String[header.numClasses()];
+        for (int i = 0; i < careerNames.length; i++) {
+            careerNames[i] = header.classAttribute().value(i);
+        }
+        this.pool = pool;
+        this.schemaSource = schemaSource;
+    }
+
+    static LoadedModel load(String modelDir, int maxIdleReplicas) throws Exception {
+        byte[] serializedModel = Files.readAllBytes(Path.of(modelDir, MODEL_FILE));
+        ModelSchemaLoader schemaLoader = new ModelSchemaLoader();
+        Instances header = schemaLoader.load(modelDir);
+        FeatureStandardizer standardizer = FeatureStandardizer.read(Path.of(modelDir, SCALING_FILE));
+        if (standardizer == null && header.relationName().contains("Standardize")) {
+            log.warn("{} was trained on standardized features but {} is missing, so requests are scored unscaled; "
+                    + "retrain it with POST /admin/model/train", MODEL_FILE, SCALING_FILE);
+        }
+        ClassifierPool pool = new ClassifierPool(serializedModel, header, maxIdleReplicas);
+        long version = checksum(serializedModel);
+        return new LoadedModel(version, String.format("%08x", version), header, standardizer, pool, schemaLoader.getSource());
+    }
+
+    // A specialized model whose feature subset is described by its own header sidecar, with its scaling if trained on any
+    static LoadedModel load(Path modelFile, Path schemaFile, String name, int maxIdleReplicas) throws Exception {
+        Instances header = (Instances) SerializationHelper.read(schemaFile.toString());
+        FeatureStandardizer standardizer = FeatureStandardizer.read(modelFile.resolveSibling(name + FeatureStandardizer.EXTENSION));
+        return of(Files.readAllBytes(modelFile), header, standardizer, name, maxIdleReplicas);
+    }
+
+    static LoadedModel of(byte[] serializedModel, Instances header, String name, int maxIdleReplicas) throws Exception {
+        return of(serializedModel, header, null, name, maxIdleReplicas);
+    }
+
+    // A model serialized in memory, labelled <name>-<checksum>
+    static LoadedModel of(byte[] serializedModel, Instances header, FeatureStandardizer standardizer, String name,
+                          int maxIdleReplicas) throws Exception {
+        if (header.classIndex() < 0) {
+            header.setClassIndex(header.numAttributes() - 1);
+        }
+        ClassifierPool pool = new ClassifierPool(serializedModel, header, maxIdleReplicas);
+        long version = checksum(serializedModel);
+        return new LoadedModel(version, String.format("%s-%08x", name, version), header, standardizer, pool,
+                ModelSchemaLoader.Source.SIDECAR);
+    }
+
+    // Scores a throwaway instance on several replicas so the first requests after a swap pay no JIT or copy cost
+    void warmUp(int replicas) throws Exception {
+        ClassifierPool.Replica[] warmed = new ClassifierPool.Replica[replicas];
+        try {
+            for (int i = 0; i < replicas; i++) {
+                warmed[i] = pool.acquire();
+                EncodedInstance instance = warmed[i].instance();
+                Arrays.fill(instance.values(), Utils.missingValue());
+                warmed[i].classifier().distributionForInstance(instance);
+            }
+        } finally {
+            for (ClassifierPool.Replica replica : warmed) {
+                if (replica != null) {
+                    pool.release(replica);
+                }
+            }
+        }
+    }
+
+    long version() {
+        return version;
+    }
+
+    String versionLabel() {
+        return versionLabel;
+    }
+
+    Instances header() {
+        return header;
+    }
+
+    FeatureEncoder encoder() {
+        return encoder;
+    }
+
+    String[] careerNames() {
+        return careerNames;
+    }
+
+    ClassifierPool pool() {
+        return pool;
+    }
+
+    ModelSchemaLoader.Source schemaSource() {
+        return schemaSource;
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
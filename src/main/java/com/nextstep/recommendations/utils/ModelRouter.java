@@ -0,0 +1,150 @@
+package com.nextstep.recommendations.utils;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.nextstep.recommendations.model.ModelRegistry;
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.repository.ModelRegistryStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Routes each profile to a model trained for its education level or AL stream: ol_v<n>.model, uni_v<n>.model and
+// stream_models/stream_<id>_v<n>.model, each next to a <name>.schema header holding just the features it uses.
+// Models load on first use and the least recently used are dropped once more than max-loaded are resident. With the
+// model registry enabled, the registry's newest versions replace the directory scan. A model dropped from its slot has
+// its prediction metrics retired with it.
+@Component
+@ConditionalOnProperty(name = "model.router.enabled", havingValue = "true")
+public class ModelRouter {
+    private static final Logger log = LoggerFactory.getLogger(ModelRouter.class);
+
+    static final String STREAM_DIR = "stream_models";
+    static final String SCHEMA_EXTENSION = ".schema";
+    private static final Pattern MODEL_FILE = Pattern.compile("(ol|uni|stream_\\d+)_v(\\d+)\\.model");
+
+    private final Path modelDir;
+    private final int maxIdleReplicas;
+    private final LoadingCache<String, Optional<LoadedModel>> models;
+    private final Optional<ModelRegistryStore> modelRegistry;
+    private volatile Map<String, Path> latest;
+
+    @Autowired
+    public ModelRouter(@Value("${model.dir}") String modelDir,
+                       @Value("${model.router.max-loaded:8}") long maxLoaded,
+                       @Value("${model.pool.max-idle:0}") int maxIdleReplicas,
+                       Optional<ModelRegistryStore> modelRegistry,
+                       PredictionMetrics predictionMetrics,
+                       MeterRegistry meterRegistry) {
+        this.modelDir = Path.of(modelDir);
+        this.maxIdleReplicas = maxIdleReplicas > 0 ? maxIdleReplicas : Runtime.getRuntime().availableProcessors();
+        this.models = Caffeine.newBuilder()
+                .maximumSize(maxLoaded)
+                .recordStats()
+                // Retiring only removes meters, so it runs on the thread that dropped the model
+                .executor(Runnable::run)
+                .removalListener((String key, Optional<LoadedModel> model, RemovalCause cause) ->
+                        model.ifPresent(dropped -> predictionMetrics.retire(dropped.versionLabel())))
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, models, "routed_models");
+        this.modelRegistry = modelRegistry;
+        this.latest = scan();
+        modelRegistry.ifPresent(registry -> registry.onChange(this::refresh));
+    }
+
+    // The specialized model for this profile, or null when none is deployed for its route
+    public LoadedModel route(StudentProfile studentProfile) {
+        String key = routeKey(studentProfile);
+        return key != null ? models.get(key).orElse(null) : null;
+    }
+
+    // Picks up newly deployed versions; loaded models are dropped and reload lazily
+    public void refresh() {
+        latest = scan();
+        models.invalidateAll();
+    }
+
+    static String routeKey(StudentProfile studentProfile) {
+        int educationLevel = studentProfile.getEducationLevel();
+        if (educationLevel == Config.EDUCATION_LEVELS.get("OL")) {
+            return "ol";
+        }
+        if (educationLevel == Config.EDUCATION_LEVELS.get("UNI")) {
+            return "uni";
+        }
+        return studentProfile.getAlStream() != null ? "stream_" + studentProfile.getAlStream() : null;
+    }
+
+    private Optional<LoadedModel> load(String key) {
+        Path modelFile = latest.get(key);
+        if (modelFile == null) {
+            return Optional.empty();
+        }
+        String name = modelFile.getFileName().toString().replace(".model", "");
+        Path schemaFile = modelFile.resolveSibling(name + SCHEMA_EXTENSION);
+        if (!Files.isRegularFile(schemaFile)) {
+            log.warn("Routed model {} has no {} header, using the default model instead", modelFile, schemaFile.getFileName());
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        try {
+            LoadedModel model = LoadedModel.load(modelFile, schemaFile, name, maxIdleReplicas);
+            log.info("Loaded routed model {} with {} features in {} ms", model.versionLabel(),
+                    model.header().numAttributes() - 1, (System.nanoTime() - start) / 1_000_000);
+            return Optional.of(model);
+        } catch (Exception e) {
+            // Cached as absent until the next refresh, so a corrupt file is not re-read on every request
+            log.error("Could not load routed model {}, using the default model instead", modelFile, e);
+            return Optional.empty();
+        }
+    }
+
+    // Highest version per route across the model dir and its stream_models subdirectory
+    private Map<String, Path> scan() {
+        Map<String, Path> files = new HashMap<>();
+        if (modelRegistry.isPresent()) {
+            for (ModelRegistry entry : modelRegistry.get().latestVersions().values()) {
+                files.put(entry.getName(), modelDir.resolve(entry.getModelPath()));
+            }
+            return files;
+        }
+        Map<String, Integer> versions = new HashMap<>();
+        for (Path dir : new Path[]{modelDir, modelDir.resolve(STREAM_DIR)}) {
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> entries = Files.list(dir)) {
+                entries.forEach(file -> {
+                    Matcher matcher = MODEL_FILE.matcher(file.getFileName().toString());
+                    if (!matcher.matches()) {
+                        return;
+                    }
+                    int version = Integer.parseInt(matcher.group(2));
+                    if (version > versions.getOrDefault(matcher.group(1), -1)) {
+                        versions.put(matcher.group(1), version);
+                        files.put(matcher.group(1), file);
+                    }
+                });
+            } catch (IOException e) {
+                log.warn("Could not list routed models in {}: {}", dir, e.getMessage());
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,55 @@
+package com.nextstep.recommendations.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.converters.ArffLoader;
+
+import java.io.File;
+
+public class ModelSchemaLoader {
+    private static final Logger log = LoggerFactory.getLogger(ModelSchemaLoader.class);
+
+    public static final String SCHEMA_FILE = "career_prediction.schema";
+    public static final String FEATURES_FILE = "features.arff";
+
+    public enum Source { SIDECAR, ARFF_HEADER }
+
+    private Source source;
+
+    public Instances load(String modelDir) throws Exception {
+        File sidecar = new File(modelDir, SCHEMA_FILE);
+        File arff = new File(modelDir, FEATURES_FILE);
+
+        // Prefer the binary sidecar unless the ARFF header was regenerated after it
+        if (sidecar.isFile() && (!arff.isFile() || sidecar.lastModified() >= arff.lastModified())) {
+            source = Source.SIDECAR;
+            return (Instances) SerializationHelper.read(sidecar.getPath());
+        }
+
+        // Only the header is parsed, the training rows are never materialized
+        ArffLoader loader = new ArffLoader();
+        loader.setFile(arff);
+        Instances header = new Instances(loader.getStructure(), 0);
+        header.setClassIndex(header.numAttributes() - 1);
+        loader.reset();
+        source = Source.ARFF_HEADER;
+
+        writeSidecar(sidecar, header);
+        return header;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public static void writeSidecar(File sidecar, Instances header) {
+        try {
+            SerializationHelper.write(sidecar.getPath(), new Instances(header, 0));
+        } catch (Exception e) {
+            // The sidecar is only a startup optimization, so a read-only model dir is not fatal
+            log.warn("Could not write model schema sidecar {}: {}", sidecar, e.getMessage());
+        }
+    }
+}
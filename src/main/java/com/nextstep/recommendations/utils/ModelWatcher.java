@@ -0,0 +1,108 @@
+package com.nextstep.recommendations.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(name = "model.watch.enabled", havingValue = "true")
+public class ModelWatcher implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ModelWatcher.class);
+
+    private final Predictor predictor;
+    private final Path modelDir;
+    private final Duration quietPeriod;
+
+    private volatile boolean running;
+    private WatchService watchService;
+    private Thread watcher;
+
+    @Autowired
+    public ModelWatcher(Predictor predictor, @Value("${model.dir}") String modelDir,
+                        @Value("${model.watch.quiet-period:2s}") Duration quietPeriod) {
+        this.predictor = predictor;
+        this.modelDir = Path.of(modelDir);
+        this.quietPeriod = quietPeriod;
+    }
+
+    @Override
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            modelDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot watch model directory " + modelDir, e);
+        }
+        running = true;
+        watcher = new Thread(this::watch, "model-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.debug("Closing model watch service failed", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void watch() {
+        try {
+            while (running) {
+                WatchKey key = watchService.take();
+                boolean modelChanged = containsModelFile(key);
+                key.reset();
+                if (!modelChanged) {
+                    continue;
+                }
+
+                // Copying a large model fires many events; wait until the directory has been quiet for a while
+                WatchKey next;
+                while ((next = watchService.poll(quietPeriod.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    next.pollEvents();
+                    next.reset();
+                }
+
+                predictor.reload().exceptionally(e -> {
+                    log.error("Model reload after file change failed", e);
+                    return null;
+                });
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private static boolean containsModelFile(WatchKey key) {
+        boolean found = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path path && path.toString().equals(LoadedModel.MODEL_FILE)) {
+                found = true;
+            }
+        }
+        return found;
+    }
+}
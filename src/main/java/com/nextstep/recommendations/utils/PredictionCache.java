@@ -0,0 +1,67 @@
+package com.nextstep.recommendations.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+@Component
+public class PredictionCache {
+    private final Cache<FeatureKey, double[]> cache;
+
+    @Autowired
+    public PredictionCache(@Value("${predictions.cache.maximum-size:10000}") long maximumSize, MeterRegistry meterRegistry) {
+        this.cache = maximumSize > 0
+                ? Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build()
+                : null;
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "predictions");
+        }
+    }
+
+    public double[] get(long modelVersion, double[] values) {
+        // The lookup key wraps the caller's buffer; only stored keys take a private copy
+        return cache != null ? cache.getIfPresent(new FeatureKey(modelVersion, values)) : null;
+    }
+
+    public void put(long modelVersion, double[] values, double[] probabilities) {
+        if (cache != null) {
+            cache.put(new FeatureKey(modelVersion, values.clone()), probabilities);
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    private static final class FeatureKey {
+        private final long modelVersion;
+        private final double[] values;
+        private final int hash;
+
+        FeatureKey(long modelVersion, double[] values) {
+            this.modelVersion = modelVersion;
+            this.values = values;
+            this.hash = 31 * Long.hashCode(modelVersion) + Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FeatureKey other)) return false;
+            return hash == other.hash && modelVersion == other.modelVersion && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
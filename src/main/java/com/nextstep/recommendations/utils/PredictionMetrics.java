@@ -0,0 +1,142 @@
+package com.nextstep.recommendations.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// One prediction.stage timer per pipeline stage, education level and model version, so a latency regression can be
+// traced to the stage that caused it. Meters are looked up once and then served from a local map, which keeps the
+// per-call cost to a nanoTime pair and a hash lookup. Batch-wide stages, and stages that run before the model is
+// known, use "all" and "none" in place of a level or version. The level comes from the request body, so anything outside
+// Config.EDUCATION_LEVELS is tagged "other" rather than opening a series per value a client sends.
+@Component
+public class PredictionMetrics {
+    public static final String ALL = "all";
+    public static final String NONE = "none";
+    public static final String OTHER = "other";
+
+    private static final Set<String> EDUCATION_LEVEL_TAGS = new HashSet<>();
+    static {
+        for (int educationLevel : Config.EDUCATION_LEVELS.values()) {
+            EDUCATION_LEVEL_TAGS.add(String.valueOf(educationLevel));
+        }
+        EDUCATION_LEVEL_TAGS.add(ALL);
+    }
+
+    public enum Stage {
+        BINDING, MAPPING, ENCODING, CLASSIFICATION, PERSISTENCE;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Key, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, Counter> unknownSubjects = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PredictionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static String educationLevelTag(int educationLevel) {
+        String tag = String.valueOf(educationLevel);
+        return EDUCATION_LEVEL_TAGS.contains(tag) ? tag : OTHER;
+    }
+
+    public void record(Stage stage, int educationLevel, String modelVersion, long nanos) {
+        record(stage, educationLevelTag(educationLevel), modelVersion, nanos);
+    }
+
+    public void record(Stage stage, String educationLevel, String modelVersion, long nanos) {
+        timers.computeIfAbsent(new Key(stage, educationLevel, modelVersion), this::timer)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Inside a transaction the stage runs until commit, since that is when JPA flushes the writes
+    public void recordUntilCommit(Stage stage, String educationLevel, String modelVersion, long start) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(stage, educationLevel, modelVersion, System.nanoTime() - start);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                record(stage, educationLevel, modelVersion, System.nanoTime() - start);
+            }
+        });
+    }
+
+    // Subjects the model has no column for, which the encoder leaves out of the prediction
+    public void unknownSubjects(int educationLevel, String modelVersion, int count) {
+        if (count > 0) {
+            unknownSubjects.computeIfAbsent(new Key(null, educationLevelTag(educationLevel), modelVersion), key ->
+                    Counter.builder("prediction.unknown_subjects")
+                            .description("Result subjects dropped because the model has no column for them")
+                            .tags("educationLevel", key.educationLevel, "model", key.modelVersion)
+                            .register(meterRegistry))
+                    .increment(count);
+        }
+    }
+
+    // Versions are checksums and the online learner publishes often, so a replaced model's meters are dropped to keep
+    // the number of series bounded
+    public void retire(String modelVersion) {
+        retire(timers, modelVersion);
+        retire(unknownSubjects, modelVersion);
+    }
+
+    private <M extends Meter> void retire(ConcurrentMap<Key, M> meters, String modelVersion) {
+        meters.keySet().removeIf(key -> {
+            if (!key.modelVersion.equals(modelVersion)) {
+                return false;
+            }
+            M meter = meters.get(key);
+            if (meter != null) {
+                meterRegistry.remove(meter);
+            }
+            return true;
+        });
+    }
+
+    private Timer timer(Key key) {
+        return Timer.builder("prediction.stage")
+                .description("Time spent in each stage of scoring a profile")
+                .tags("stage", key.stage.tag, "educationLevel", key.educationLevel, "model", key.modelVersion)
+                .register(meterRegistry);
+    }
+
+    private static final class Key {
+        private final Stage stage;
+        private final String educationLevel;
+        private final String modelVersion;
+
+        Key(Stage stage, String educationLevel, String modelVersion) {
+            this.stage = stage;
+            this.educationLevel = EDUCATION_LEVEL_TAGS.contains(educationLevel) ? educationLevel : OTHER;
+            this.modelVersion = modelVersion != null ? modelVersion : NONE;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && stage == key.stage && educationLevel.equals(key.educationLevel)
+                    && modelVersion.equals(key.modelVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * Objects.hashCode(stage) + educationLevel.hashCode()) * 31 + modelVersion.hashCode();
+        }
+    }
+}
@@ -1,79 +1,393 @@
 package com.nextstep.recommendations.utils;
 
 import com.nextstep.recommendations.model.StudentProfile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import weka.classifiers.Classifier;
+import weka.core.BatchPredictor;
 import weka.core.DenseInstance;
 import weka.core.Instances;
-import weka.core.SerializationHelper;
-import weka.core.converters.ConverterUtils.DataSource;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Component
 public class Predictor {
-    private final Classifier model;
-    private final Instances dataset;
+    private static final Logger log = LoggerFactory.getLogger(Predictor.class);
+
+    private final String modelDir;
+    private final int maxIdleReplicas;
+    private final PredictionCache predictionCache;
+    private final HeuristicScorer heuristicScorer;
+    private final ScoringCircuitBreaker circuitBreaker;
+    private final Optional<ModelRouter> modelRouter;
+    private final boolean fallbackEnabled;
+    private final int topK;
+    private final PredictionMetrics predictionMetrics;
+    private final AtomicReference<LoadedModel> current = new AtomicReference<>();
+    private final ExecutorService reloadExecutor;
+    private final Timer reloadTimer;
+    private final Counter reloadFailures;
+    private final MeterRegistry meterRegistry;
 
     @Autowired
-    public Predictor(@Value("${model.dir}") String modelDir) throws Exception {
-        this.model = (Classifier) SerializationHelper.read(modelDir + "career_prediction.model");
-        this.dataset = DataSource.read(modelDir + "features.arff");
-        this.dataset.setClassIndex(this.dataset.numAttributes() - 1);
+    public Predictor(@Value("${model.dir}") String modelDir,
+                     @Value("${model.pool.max-idle:0}") int maxIdleReplicas,
+                     PredictionCache predictionCache,
+                     HeuristicScorer heuristicScorer,
+                     ScoringCircuitBreaker circuitBreaker,
+                     Optional<ModelRouter> modelRouter,
+                     @Value("${predictions.fallback.enabled:true}") boolean fallbackEnabled,
+                     @Value("${predictions.top-k:0}") int topK,
+                     PredictionMetrics predictionMetrics,
+                     MeterRegistry meterRegistry) throws Exception {
+        long start = System.nanoTime();
+        this.modelDir = modelDir;
+        this.maxIdleReplicas = maxIdleReplicas > 0 ? maxIdleReplicas : Runtime.getRuntime().availableProcessors();
+        this.predictionCache = predictionCache;
+        this.heuristicScorer = heuristicScorer;
+        this.circuitBreaker = circuitBreaker;
+        this.modelRouter = modelRouter;
+        this.fallbackEnabled = fallbackEnabled;
+        this.topK = topK;
+        this.predictionMetrics = predictionMetrics;
+        this.meterRegistry = meterRegistry;
+
+        // Without a model the service still starts and answers from the heuristic until a reload succeeds
+        LoadedModel model = null;
+        try {
+            model = LoadedModel.load(modelDir, this.maxIdleReplicas);
+        } catch (Exception e) {
+            if (!fallbackEnabled) {
+                throw e;
+            }
+            log.warn("No career prediction model loaded from {}, serving heuristic predictions: {}", modelDir, e.toString());
+        }
+        current.set(model);
+
+        // Reloads are serialized on one background thread so two swaps never race
+        this.reloadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "model-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Timer.builder("predictor.startup")
+                .description("Time to load the career prediction model and its schema")
+                .tag("schema", model != null ? model.schemaSource().name().toLowerCase() : "none")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Gauge.builder("predictor.model.replicas", current, ref -> ref.get() != null ? ref.get().pool().getCreatedReplicas() : 0)
+                .register(meterRegistry);
+        this.reloadTimer = meterRegistry.timer("predictor.reload");
+        this.reloadFailures = meterRegistry.counter("predictor.reload.failures");
     }
 
     public StudentProfile updateCareerProbabilities(StudentProfile studentProfile) throws Exception {
-        DenseInstance instance = createInstance(studentProfile);
-        double[] probabilities = model.distributionForInstance(instance);
+        return updateCareerProbabilities(studentProfile, Scorer.AUTO);
+    }
 
-        Map<String, Double> careerProbabilities = new HashMap<>();
-        for (int i = 0; i < probabilities.length; i++) {
-            String careerName = dataset.classAttribute().value(i);
-            careerProbabilities.put(careerName, probabilities[i]);
+    public StudentProfile updateCareerProbabilities(StudentProfile studentProfile, Scorer scorer) throws Exception {
+        // Read the model once; a concurrent swap lets this request finish on the version it started with
+        LoadedModel model = scorer != Scorer.HEURISTIC ? modelFor(studentProfile) : null;
+        if (useHeuristic(model, scorer)) {
+            return scoreHeuristically(studentProfile);
+        }
+
+        double[] probabilities;
+        try {
+            probabilities = distributionForInstance(model, studentProfile, scorer);
+        } catch (Exception e) {
+            if (!fallsBack(scorer)) {
+                throw e;
+            }
+            circuitBreaker.recordFailure();
+            fallback("error");
+            return scoreHeuristically(studentProfile);
         }
 
-        studentProfile.setCareerProbabilities(careerProbabilities);
+        studentProfile.setCareerProbabilities(toCareerProbabilities(model.careerNames(), probabilities));
+        studentProfile.setModelVersion(model.versionLabel());
         return studentProfile;
     }
 
-    private DenseInstance createInstance(StudentProfile studentProfile) {
-        DenseInstance instance = new DenseInstance(dataset.numAttributes());
-        instance.setDataset(dataset);
+    public List<StudentProfile> updateCareerProbabilities(List<StudentProfile> studentProfiles) throws Exception {
+        return updateCareerProbabilities(studentProfiles, Scorer.AUTO);
+    }
 
-        // Set education level
-        instance.setValue(dataset.attribute("education_level"), studentProfile.getEducationLevel());
+    public List<StudentProfile> updateCareerProbabilities(List<StudentProfile> studentProfiles, Scorer scorer) throws Exception {
+        if (modelRouter.isEmpty() || scorer == Scorer.HEURISTIC) {
+            return updateCareerProbabilities(current.get(), studentProfiles, scorer);
+        }
 
-        // Set OL results
-        for (Map.Entry<String, Double> entry : studentProfile.getOlResults().entrySet()) {
-            String colName = "OL_subject_" + entry.getKey() + "_score";
-            if (dataset.attribute(colName) != null) {
-                instance.setValue(dataset.attribute(colName), entry.getValue());
-            }
+        // Each routed model scores its own share of the batch as one Instances
+        Map<LoadedModel, List<StudentProfile>> groups = new HashMap<>();
+        for (StudentProfile studentProfile : studentProfiles) {
+            groups.computeIfAbsent(modelFor(studentProfile), model -> new ArrayList<>()).add(studentProfile);
         }
+        for (Map.Entry<LoadedModel, List<StudentProfile>> group : groups.entrySet()) {
+            updateCareerProbabilities(group.getKey(), group.getValue(), scorer);
+        }
+        return studentProfiles;
+    }
 
-        // Set AL stream (if available)
-        if (studentProfile.getAlStream() != null) {
-            instance.setValue(dataset.attribute("AL_stream"), studentProfile.getAlStream());
+    private List<StudentProfile> updateCareerProbabilities(LoadedModel model, List<StudentProfile> studentProfiles,
+                                                           Scorer scorer) throws Exception {
+        if (useHeuristic(model, scorer)) {
+            studentProfiles.forEach(this::scoreHeuristically);
+            return studentProfiles;
         }
 
-        // Set AL results (if available)
-        if (studentProfile.getAlResults() != null) {
-            for (Map.Entry<String, Double> entry : studentProfile.getAlResults().entrySet()) {
-                String colName = "AL_subject_" + entry.getKey() + "_score";
-                if (dataset.attribute(colName) != null) {
-                    instance.setValue(dataset.attribute(colName), entry.getValue());
+        try {
+            scoreBatch(model, studentProfiles, scorer);
+        } catch (Exception e) {
+            if (!fallsBack(scorer)) {
+                throw e;
+            }
+            circuitBreaker.recordFailure();
+            fallback("error");
+            studentProfiles.forEach(this::scoreHeuristically);
+            return studentProfiles;
+        }
+        return studentProfiles;
+    }
+
+    // Only calls that reach the classifier tell the circuit breaker anything, so cache hits are not recorded, and a
+    // half-open trial skips the cache so it always probes the model
+    private boolean isTrial(Scorer scorer) {
+        return fallsBack(scorer) && circuitBreaker.isOpen();
+    }
+
+    private double[] distributionForInstance(LoadedModel model, StudentProfile studentProfile, Scorer scorer) throws Exception {
+        ClassifierPool.Replica replica = model.pool().acquire();
+        try {
+            // The replica's scratch instance is reused, so the encoder writes in place
+            EncodedInstance instance = replica.instance();
+            double[] values = instance.values();
+            int educationLevel = studentProfile.getEducationLevel();
+            long start = System.nanoTime();
+            int unknownSubjects = model.encoder().encode(studentProfile, values);
+            long encoded = System.nanoTime();
+            predictionMetrics.record(PredictionMetrics.Stage.ENCODING, educationLevel, model.versionLabel(), encoded - start);
+            predictionMetrics.unknownSubjects(educationLevel, model.versionLabel(), unknownSubjects);
+
+            // Profiles that share a grade vector share a distribution, so repeat vectors skip the classifier; only
+            // the misses are timed as classification, the hits show in the cache metrics
+            double[] probabilities = isTrial(scorer) ? null : predictionCache.get(model.version(), values);
+            if (probabilities == null) {
+                probabilities = replica.classifier().distributionForInstance(instance);
+                long classified = System.nanoTime();
+                predictionMetrics.record(PredictionMetrics.Stage.CLASSIFICATION, educationLevel, model.versionLabel(),
+                        classified - encoded);
+                predictionCache.put(model.version(), values, probabilities);
+                if (fallsBack(scorer)) {
+                    circuitBreaker.recordSuccess(classified - start);
                 }
             }
+            return probabilities;
+        } finally {
+            model.pool().release(replica);
         }
+    }
 
-        // Set GPA (if available)
-        if (studentProfile.getGpa() != null) {
-            instance.setValue(dataset.attribute("gpa"), studentProfile.getGpa());
+    private void scoreBatch(LoadedModel model, List<StudentProfile> studentProfiles, Scorer scorer) throws Exception {
+        FeatureEncoder encoder = model.encoder();
+        boolean trial = isTrial(scorer);
+
+        // Encode the whole batch, then send only the cache misses to the classifier as one Instances
+        double[][] distributions = new double[studentProfiles.size()][];
+        double[][] encoded = new double[studentProfiles.size()][];
+        Instances batch = new Instances(model.header(), studentProfiles.size());
+        int[] misses = new int[studentProfiles.size()];
+        int missCount = 0;
+        for (int i = 0; i < studentProfiles.size(); i++) {
+            StudentProfile studentProfile = studentProfiles.get(i);
+            double[] values = new double[encoder.numAttributes()];
+            long start = System.nanoTime();
+            int unknownSubjects = encoder.encode(studentProfile, values);
+            predictionMetrics.record(PredictionMetrics.Stage.ENCODING, studentProfile.getEducationLevel(),
+                    model.versionLabel(), System.nanoTime() - start);
+            predictionMetrics.unknownSubjects(studentProfile.getEducationLevel(), model.versionLabel(), unknownSubjects);
+            encoded[i] = values;
+            distributions[i] = trial ? null : predictionCache.get(model.version(), values);
+            if (distributions[i] == null) {
+                batch.add(new DenseInstance(1.0, values));
+                misses[missCount++] = i;
+            }
         }
 
-        return instance;
+        if (missCount > 0) {
+            // The misses are classified together, so the batch is timed as one across its education levels
+            long start = System.nanoTime();
+            double[][] scored = distributionsForInstances(model, batch);
+            long elapsed = System.nanoTime() - start;
+            predictionMetrics.record(PredictionMetrics.Stage.CLASSIFICATION, PredictionMetrics.ALL, model.versionLabel(),
+                    elapsed);
+            // A batch is held to the slow-call threshold per classified profile, not as a whole
+            if (fallsBack(scorer)) {
+                circuitBreaker.recordSuccess(elapsed / missCount);
+            }
+            for (int i = 0; i < missCount; i++) {
+                distributions[misses[i]] = scored[i];
+                predictionCache.put(model.version(), encoded[misses[i]], scored[i]);
+            }
+        }
+
+        for (int i = 0; i < distributions.length; i++) {
+            studentProfiles.get(i).setCareerProbabilities(toCareerProbabilities(model.careerNames(), distributions[i]));
+            studentProfiles.get(i).setModelVersion(model.versionLabel());
+        }
+    }
+
+    public String getModelVersion() {
+        LoadedModel model = current.get();
+        return model != null ? model.versionLabel() : HeuristicScorer.VERSION;
+    }
+
+    // A private copy of the default model now serving, or null while only the heuristic serves
+    public ServingModel servingModel() throws Exception {
+        LoadedModel model = current.get();
+        return model != null ? new ServingModel(model) : null;
+    }
+
+    // The specialized model for the profile's level or stream when routing is on, otherwise the default model
+    private LoadedModel modelFor(StudentProfile studentProfile) {
+        if (modelRouter.isPresent()) {
+            LoadedModel routed = modelRouter.get().route(studentProfile);
+            if (routed != null) {
+                return routed;
+            }
+        }
+        return current.get();
+    }
+
+    private boolean useHeuristic(LoadedModel model, Scorer scorer) {
+        if (scorer == Scorer.HEURISTIC) {
+            fallback("requested");
+            return true;
+        }
+        if (model == null) {
+            if (!fallsBack(scorer)) {
+                throw new IllegalStateException("No career prediction model is loaded from " + modelDir);
+            }
+            fallback("no_model");
+            return true;
+        }
+        if (fallsBack(scorer) && !circuitBreaker.allowRequest()) {
+            fallback("circuit_open");
+            return true;
+        }
+        return false;
+    }
+
+    private boolean fallsBack(Scorer scorer) {
+        return scorer == Scorer.AUTO && fallbackEnabled;
+    }
+
+    private StudentProfile scoreHeuristically(StudentProfile studentProfile) {
+        long start = System.nanoTime();
+        double[] probabilities = heuristicScorer.score(studentProfile);
+        predictionMetrics.record(PredictionMetrics.Stage.CLASSIFICATION, studentProfile.getEducationLevel(),
+                HeuristicScorer.VERSION, System.nanoTime() - start);
+        studentProfile.setCareerProbabilities(toCareerProbabilities(heuristicScorer.careerNames(), probabilities));
+        studentProfile.setModelVersion(HeuristicScorer.VERSION);
+        return studentProfile;
+    }
+
+    private void fallback(String reason) {
+        meterRegistry.counter("predictor.fallback", "reason", reason).increment();
+    }
+
+    public CompletableFuture<String> reload() {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            modelRouter.ifPresent(ModelRouter::refresh);
+            try {
+                return swap(LoadedModel.load(modelDir, maxIdleReplicas), start);
+            } catch (Exception e) {
+                // The current model keeps serving when a reload fails
+                reloadFailures.increment();
+                throw new IllegalStateException("Could not reload model from " + modelDir, e);
+            }
+        }, reloadExecutor);
+    }
+
+    // Swaps in a model serialized in memory, such as a snapshot of the online learner's shadow model
+    public CompletableFuture<String> publish(byte[] serializedModel, Instances header, String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return swap(LoadedModel.of(serializedModel, header, name, maxIdleReplicas), start);
+            } catch (Exception e) {
+                reloadFailures.increment();
+                throw new IllegalStateException("Could not publish model " + name, e);
+            }
+        }, reloadExecutor);
+    }
+
+    private String swap(LoadedModel next, long start) throws Exception {
+        next.warmUp(Math.min(maxIdleReplicas, Runtime.getRuntime().availableProcessors()));
+
+        LoadedModel previous = current.getAndSet(next);
+        if (previous == null || previous.version() != next.version()) {
+            predictionCache.invalidateAll();
+        }
+        if (previous != null && !previous.versionLabel().equals(next.versionLabel())) {
+            predictionMetrics.retire(previous.versionLabel());
+        }
+        reloadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("Swapped career prediction model {} for {}",
+                previous != null ? previous.versionLabel() : HeuristicScorer.VERSION, next.versionLabel());
+        return next.versionLabel();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloadExecutor.shutdownNow();
+    }
+
+    private static double[][] distributionsForInstances(LoadedModel model, Instances batch) throws Exception {
+        ClassifierPool.Replica replica = model.pool().acquire();
+        try {
+            Classifier classifier = replica.classifier();
+            if (classifier instanceof BatchPredictor batchPredictor) {
+                return batchPredictor.distributionsForInstances(batch);
+            }
+            double[][] distributions = new double[batch.numInstances()][];
+            for (int i = 0; i < distributions.length; i++) {
+                distributions[i] = classifier.distributionForInstance(batch.instance(i));
+            }
+            return distributions;
+        } finally {
+            model.pool().release(replica);
+        }
+    }
+
+    // In top-K mode only the K most probable careers are kept, so only those are returned and stored
+    private Map<String, Double> toCareerProbabilities(String[] careerNames, double[] probabilities) {
+        if (topK > 0) {
+            return CareerRanking.top(careerNames, probabilities, topK);
+        }
+        Map<String, Double> careerProbabilities = new HashMap<>();
+        for (int i = 0; i < probabilities.length; i++) {
+            careerProbabilities.put(careerNames[i], probabilities[i]);
+        }
+        return careerProbabilities;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.model.StudentProfile;
+
+import java.util.Collections;
+
+// Profiles as points for similarity search: education level, one coordinate per OL and AL subject holding the
+// grade's weight (A=1.0 .. F=0.2, 0 when not taken) and GPA, each scaled to [0, 1] so no feature dominates the distance.
+// The AL stream is left out: it is categorical, and the AL subjects taken already separate the streams.
+public final class ProfileVectors {
+    private static final int[] OL_SUBJECTS = CompiledConfig.OL_SUBJECT_IDS;
+    private static final int[] AL_SUBJECTS = CompiledConfig.AL_SUBJECT_IDS;
+    private static final double MAX_EDUCATION_LEVEL = Collections.max(Config.EDUCATION_LEVELS.values());
+    private static final double MAX_GPA = 4.0;
+
+    public static final int DIMENSIONS = 1 + OL_SUBJECTS.length + AL_SUBJECTS.length + 1;
+
+    private ProfileVectors() {}
+
+    public static float[] encode(StudentProfile studentProfile) {
+        float[] vector = new float[DIMENSIONS];
+        int i = 0;
+        vector[i++] = (float) (studentProfile.getEducationLevel() / MAX_EDUCATION_LEVEL);
+        int[] olGrades = HeuristicScorer.toGrades(studentProfile.getOlResults());
+        for (int subject : OL_SUBJECTS) {
+            vector[i++] = weight(olGrades[subject]);
+        }
+        int[] alGrades = HeuristicScorer.toGrades(studentProfile.getAlResults());
+        for (int subject : AL_SUBJECTS) {
+            vector[i++] = weight(alGrades[subject]);
+        }
+        Double gpa = studentProfile.getGpa();
+        vector[i] = gpa != null ? (float) Math.min(1.0, Math.max(0.0, gpa / MAX_GPA)) : 0f;
+        return vector;
+    }
+
+    private static float weight(int grade) {
+        return grade != CompiledConfig.NO_GRADE ? (float) CompiledConfig.GRADE_WEIGHT[grade] : 0f;
+    }
+}
@@ -0,0 +1,24 @@
+package com.nextstep.recommendations.utils;
+
+import java.util.Locale;
+
+// Which engine answers a prediction request
+public enum Scorer {
+    // The model, falling back to the heuristic while it is missing or the circuit breaker is open
+    AUTO,
+    // The model only; fails instead of falling back
+    MODEL,
+    // The rule-based scorer only
+    HEURISTIC;
+
+    public static Scorer fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return AUTO;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown scorer '" + value + "', expected auto, model or heuristic");
+        }
+    }
+}
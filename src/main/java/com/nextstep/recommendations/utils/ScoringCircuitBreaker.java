@@ -0,0 +1,82 @@
+package com.nextstep.recommendations.utils;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Opens after consecutive failed or slow model calls; while open, callers use the heuristic. After the open
+// duration a single trial call is let through, and its outcome closes or re-opens the breaker.
+@Component
+public class ScoringCircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(ScoringCircuitBreaker.class);
+
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile long openedAt;
+    private volatile boolean open;
+
+    @Autowired
+    public ScoringCircuitBreaker(@Value("${predictions.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                 @Value("${predictions.circuit-breaker.slow-call-threshold:250ms}") Duration slowCallThreshold,
+                                 @Value("${predictions.circuit-breaker.open-duration:30s}") Duration openDuration,
+                                 MeterRegistry meterRegistry) {
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.openNanos = openDuration.toNanos();
+
+        Gauge.builder("predictor.circuit.open", this, breaker -> breaker.open ? 1 : 0)
+                .description("1 while model calls are diverted to the heuristic scorer")
+                .register(meterRegistry);
+    }
+
+    public boolean allowRequest() {
+        if (!open) {
+            return true;
+        }
+        if (System.nanoTime() - openedAt < openNanos) {
+            return false;
+        }
+        // Half-open: exactly one caller probes the model
+        return trialInFlight.compareAndSet(false, true);
+    }
+
+    public void recordSuccess(long elapsedNanos) {
+        if (elapsedNanos > slowCallNanos) {
+            recordFailure();
+            return;
+        }
+        consecutiveFailures.set(0);
+        if (open) {
+            open = false;
+            trialInFlight.set(false);
+            log.info("Model scoring recovered, circuit closed");
+        }
+    }
+
+    public void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold || trialInFlight.get()) {
+            openedAt = System.nanoTime();
+            if (!open) {
+                open = true;
+                log.warn("Model scoring failing or slow, serving heuristic predictions for {} ms", openNanos / 1_000_000);
+            }
+            trialInFlight.set(false);
+        }
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+}
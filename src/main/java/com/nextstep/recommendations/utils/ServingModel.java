@@ -0,0 +1,33 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import weka.classifiers.Classifier;
+import weka.core.Utils;
+
+// A private copy of one model version with the header and encoder it scores through, for evaluating the model off the
+// request path. Nothing scored here reaches the prediction metrics, the prediction cache or the circuit breaker. Not
+// thread-safe: the scratch instance is reused across calls.
+public final class ServingModel {
+    private final String versionLabel;
+    private final Classifier classifier;
+    private final FeatureEncoder encoder;
+    private final EncodedInstance instance;
+    private final String[] careerNames;
+
+    ServingModel(LoadedModel model) throws Exception {
+        this.versionLabel = model.versionLabel();
+        this.classifier = model.pool().copy();
+        this.encoder = model.encoder();
+        this.instance = new EncodedInstance(model.header());
+        this.careerNames = model.careerNames();
+    }
+
+    public String versionLabel() {
+        return versionLabel;
+    }
+
+    public String topCareer(StudentProfile studentProfile) throws Exception {
+        encoder.encode(studentProfile, instance.values());
+        return careerNames[Utils.maxIndex(classifier.distributionForInstance(instance))];
+    }
+}
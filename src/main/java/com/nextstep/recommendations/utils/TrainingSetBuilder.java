@@ -0,0 +1,39 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+// Collects labelled profiles into a training set, encoded by the same FeatureEncoder that serves the model
+public class TrainingSetBuilder {
+    private final TrainingTarget target;
+    private final FeatureEncoder encoder;
+    private final Instances data;
+
+    public TrainingSetBuilder(TrainingTarget target) {
+        this.target = target;
+        this.data = target.header();
+        this.encoder = new FeatureEncoder(data);
+    }
+
+    // Profiles outside the target are skipped; returns whether this one was added
+    public boolean add(StudentProfile studentProfile, int career) {
+        if (!target.includes(studentProfile.getEducationLevel(), studentProfile.getAlStream())) {
+            return false;
+        }
+        double[] values = new double[encoder.numAttributes()];
+        encoder.encode(studentProfile, values);
+        values[data.classIndex()] = career;
+        data.add(new DenseInstance(1.0, values));
+        return true;
+    }
+
+    public int size() {
+        return data.numInstances();
+    }
+
+    public Instances build() {
+        data.compactify();
+        return data;
+    }
+}
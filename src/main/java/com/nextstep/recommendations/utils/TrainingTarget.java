@@ -0,0 +1,159 @@
+package com.nextstep.recommendations.utils;
+
+import weka.core.Attribute;
+import weka.core.Instances;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Which profiles a model is trained on and which features it sees. career_prediction is the default model over every
+// profile; ol, uni and stream_<id> are the specialized models ModelRouter serves, over the features their level uses.
+public final class TrainingTarget {
+    public static final String CAREER_PREDICTION = "career_prediction";
+
+    private static final int OL_LEVEL = Config.EDUCATION_LEVELS.get("OL");
+    private static final int AL_LEVEL = Config.EDUCATION_LEVELS.get("AL");
+    private static final int UNI_LEVEL = Config.EDUCATION_LEVELS.get("UNI");
+
+    private final String name;
+    private final int educationLevel;
+    private final int alStream;
+
+    private TrainingTarget(String name, int educationLevel, int alStream) {
+        this.name = name;
+        this.educationLevel = educationLevel;
+        this.alStream = alStream;
+    }
+
+    public static TrainingTarget parse(String name) {
+        if (name == null || name.isBlank() || name.equals(CAREER_PREDICTION)) {
+            return new TrainingTarget(CAREER_PREDICTION, -1, HeuristicScorer.NO_STREAM);
+        }
+        if (name.equals("ol")) {
+            return new TrainingTarget(name, OL_LEVEL, HeuristicScorer.NO_STREAM);
+        }
+        if (name.equals("uni")) {
+            return new TrainingTarget(name, UNI_LEVEL, HeuristicScorer.NO_STREAM);
+        }
+        if (name.startsWith("stream_")) {
+            try {
+                int stream = Integer.parseInt(name.substring("stream_".length()));
+                if (Config.AL_STREAMS.containsValue(stream)) {
+                    return new TrainingTarget(name, AL_LEVEL, stream);
+                }
+            } catch (NumberFormatException e) {
+                // Reported below with the other unknown names
+            }
+        }
+        throw new IllegalArgumentException("Unknown training target: " + name);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Integer alStream() {
+        return alStream != HeuristicScorer.NO_STREAM ? alStream : null;
+    }
+
+    // Stream models live in their own subdirectory, the way ModelRouter looks them up
+    public Path directory(Path modelDir) {
+        return alStream != HeuristicScorer.NO_STREAM ? modelDir.resolve(ModelRouter.STREAM_DIR) : modelDir;
+    }
+
+    // <name>_v<version>.model with its .schema header, .scaling parameters and .metrics.json, e.g. stream_models/stream_6_v3.model
+    public Path modelFile(Path modelDir, int version) {
+        return file(modelDir, version, ".model");
+    }
+
+    public Path schemaFile(Path modelDir, int version) {
+        return file(modelDir, version, ModelRouter.SCHEMA_EXTENSION);
+    }
+
+    public Path scalingFile(Path modelDir, int version) {
+        return file(modelDir, version, FeatureStandardizer.EXTENSION);
+    }
+
+    public Path metricsFile(Path modelDir, int version) {
+        return file(modelDir, version, ".metrics.json");
+    }
+
+    public int nextVersion(Path modelDir) throws IOException {
+        Path directory = directory(modelDir);
+        if (!Files.isDirectory(directory)) {
+            return 1;
+        }
+        Pattern versioned = Pattern.compile(Pattern.quote(name) + "_v(\\d+)\\.model");
+        int latest = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = versioned.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    latest = Math.max(latest, Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        return latest + 1;
+    }
+
+    public boolean includes(int profileEducationLevel, Integer profileAlStream) {
+        if (educationLevel < 0) {
+            return true;
+        }
+        if (profileEducationLevel != educationLevel) {
+            return false;
+        }
+        return alStream == HeuristicScorer.NO_STREAM || (profileAlStream != null && profileAlStream == alStream);
+    }
+
+    // Attribute names follow FeatureEncoder, so serving encodes requests into exactly the columns trained on
+    public Instances header() {
+        List<Attribute> attributes = new ArrayList<>();
+        if (educationLevel < 0) {
+            attributes.add(new Attribute("education_level"));
+        }
+        for (int subject : sorted(CompiledConfig.OL_SUBJECT_IDS)) {
+            attributes.add(new Attribute("OL_subject_" + subject + "_score"));
+        }
+        if (educationLevel != OL_LEVEL) {
+            if (alStream == HeuristicScorer.NO_STREAM) {
+                attributes.add(new Attribute("AL_stream"));
+            }
+            int[] alSubjects = alStream != HeuristicScorer.NO_STREAM
+                    ? CompiledConfig.AL_SUBJECT_IDS_BY_STREAM[alStream] : CompiledConfig.AL_SUBJECT_IDS;
+            for (int subject : sorted(alSubjects)) {
+                attributes.add(new Attribute("AL_subject_" + subject + "_score"));
+            }
+        }
+        if (educationLevel < 0 || educationLevel == UNI_LEVEL) {
+            attributes.add(new Attribute("gpa"));
+        }
+        attributes.add(new Attribute("career", Arrays.asList(CompiledConfig.CAREER_NAMES)));
+
+        Instances header = new Instances(name, new ArrayList<>(attributes), 0);
+        header.setClassIndex(header.numAttributes() - 1);
+        return header;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private Path file(Path modelDir, int version, String extension) {
+        return directory(modelDir).resolve(name + "_v" + version + extension);
+    }
+
+    private static int[] sorted(int[] ids) {
+        int[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,16 @@
+-- Career probability totals per (education level, AL stream) cohort; -1 stands for profiles without a stream so the
+-- unique index needed by REFRESH MATERIALIZED VIEW CONCURRENTLY can be on plain columns
+CREATE MATERIALIZED VIEW IF NOT EXISTS career_cohort_summary_compact AS
+WITH cohorts AS (
+    SELECT education_level, COALESCE(al_stream, -1) AS al_stream, count(*) AS profiles
+    FROM student_profiles_compact
+    GROUP BY 1, 2
+)
+SELECT k.education_level, k.al_stream, k.profiles, c.key AS career, sum(c.value::double precision) AS probability_sum
+FROM student_profiles_compact p
+CROSS JOIN LATERAL jsonb_each_text(p.career_probabilities) c
+JOIN cohorts k ON k.education_level = p.education_level AND k.al_stream = COALESCE(p.al_stream, -1)
+GROUP BY k.education_level, k.al_stream, k.profiles, c.key;
+
+CREATE UNIQUE INDEX IF NOT EXISTS career_cohort_summary_compact_key
+    ON career_cohort_summary_compact (education_level, al_stream, career);
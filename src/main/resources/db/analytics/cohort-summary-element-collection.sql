@@ -0,0 +1,16 @@
+-- Career probability totals per (education level, AL stream) cohort; -1 stands for profiles without a stream so the
+-- unique index needed by REFRESH MATERIALIZED VIEW CONCURRENTLY can be on plain columns
+CREATE MATERIALIZED VIEW IF NOT EXISTS career_cohort_summary_element_collection AS
+WITH cohorts AS (
+    SELECT education_level, COALESCE(al_stream, -1) AS al_stream, count(*) AS profiles
+    FROM student_profiles
+    GROUP BY 1, 2
+)
+SELECT k.education_level, k.al_stream, k.profiles, c.career, sum(c.probability) AS probability_sum
+FROM student_profiles p
+JOIN career_probabilities c ON c.profile_id = p.id
+JOIN cohorts k ON k.education_level = p.education_level AND k.al_stream = COALESCE(p.al_stream, -1)
+GROUP BY k.education_level, k.al_stream, k.profiles, c.career;
+
+CREATE UNIQUE INDEX IF NOT EXISTS career_cohort_summary_element_collection_key
+    ON career_cohort_summary_element_collection (education_level, al_stream, career);
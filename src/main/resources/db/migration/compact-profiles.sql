@@ -0,0 +1,31 @@
+-- Compact profile layout: one row per profile, result maps stored as jsonb keyed by subject id or career
+CREATE TABLE IF NOT EXISTS student_profiles_compact (
+    id                   uuid PRIMARY KEY,
+    education_level      integer NOT NULL,
+    ol_results           jsonb,
+    al_stream            integer,
+    al_results           jsonb,
+    career_probabilities jsonb,
+    gpa                  double precision,
+    model_version        varchar(255),
+    created_at           timestamp(6) NOT NULL,
+    updated_at           timestamp(6)
+);
+
+ALTER TABLE student_profiles_compact ADD COLUMN IF NOT EXISTS model_version varchar(255);
+
+INSERT INTO student_profiles_compact
+    (id, education_level, ol_results, al_stream, al_results, career_probabilities, gpa, model_version, created_at,
+     updated_at)
+SELECT p.id,
+       p.education_level,
+       (SELECT jsonb_object_agg(o.subject, o.grade) FROM ol_results o WHERE o.profile_id = p.id),
+       p.al_stream,
+       (SELECT jsonb_object_agg(a.subject, a.grade) FROM al_results a WHERE a.profile_id = p.id),
+       (SELECT jsonb_object_agg(c.career, c.probability) FROM career_probabilities c WHERE c.profile_id = p.id),
+       p.gpa,
+       p.model_version,
+       p.created_at,
+       p.updated_at
+FROM student_profiles p
+ON CONFLICT (id) DO NOTHING;
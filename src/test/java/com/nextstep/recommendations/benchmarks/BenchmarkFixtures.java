@@ -0,0 +1,83 @@
+package com.nextstep.recommendations.benchmarks;
+
+import com.nextstep.recommendations.dto.StudentProfileDTO;
+import com.nextstep.recommendations.mapper.StudentProfileMapper;
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.src.StudentProfileGenerator;
+import com.nextstep.recommendations.utils.Config;
+import com.nextstep.recommendations.utils.ModelSchemaLoader;
+import weka.classifiers.Classifier;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.converters.ConverterUtils.DataSource;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+final class BenchmarkFixtures {
+    static final long SEED = 42L;
+    static final String MODEL_DIR = "models/";
+
+    private BenchmarkFixtures() {}
+
+    // Seeded generator output, converted to the subject-id keys the API receives
+    static List<StudentProfileDTO> profiles(int count) {
+        StudentProfileGenerator generator = new StudentProfileGenerator(null, SEED);
+        List<StudentProfileDTO> profiles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            com.nextstep.recommendations.src.StudentProfile generated = generator.generateStudentProfile();
+
+            StudentProfileDTO dto = new StudentProfileDTO();
+            dto.setId(new UUID(SEED, i));
+            dto.setEducationLevel(generated.getEducationLevel());
+            dto.setOlResults(toIds(generated.getOlResults(), Config.OL_SUBJECTS));
+            dto.setAlStream(generated.getAlStream());
+            dto.setAlResults(toIds(generated.getAlResults(), Config.AL_SUBJECTS));
+            dto.setGpa(generated.getGpa());
+            dto.setCareerProbabilities(toIds(generated.getCareerProbabilities(), Config.CAREERS));
+            profiles.add(dto);
+        }
+        return profiles;
+    }
+
+    static List<StudentProfile> entities(int count) {
+        List<StudentProfile> entities = new ArrayList<>(count);
+        for (StudentProfileDTO dto : profiles(count)) {
+            entities.add(StudentProfileMapper.INSTANCE.toEntity(dto));
+        }
+        return entities;
+    }
+
+    static Instances header() throws Exception {
+        return new ModelSchemaLoader().load(MODEL_DIR);
+    }
+
+    // Uses the deployed model when one is present, otherwise a tree trained on features.arff
+    static Classifier classifier() throws Exception {
+        File model = new File(MODEL_DIR, "career_prediction.model");
+        if (model.exists()) {
+            return (Classifier) SerializationHelper.read(model.getPath());
+        }
+        Instances data = DataSource.read(MODEL_DIR + ModelSchemaLoader.FEATURES_FILE);
+        data.setClassIndex(data.numAttributes() - 1);
+        Classifier classifier = new J48();
+        classifier.buildClassifier(data);
+        return classifier;
+    }
+
+    private static Map<String, Double> toIds(Map<String, Double> byName, Map<String, Integer> ids) {
+        if (byName == null) {
+            return null;
+        }
+        Map<String, Double> byId = new HashMap<>();
+        for (Map.Entry<String, Double> entry : byName.entrySet()) {
+            byId.put(String.valueOf(ids.get(entry.getKey())), entry.getValue());
+        }
+        return byId;
+    }
+}
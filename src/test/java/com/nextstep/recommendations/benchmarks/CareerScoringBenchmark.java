@@ -0,0 +1,139 @@
+package com.nextstep.recommendations.benchmarks;
+
+import com.nextstep.recommendations.src.StudentProfile;
+import com.nextstep.recommendations.src.StudentProfileGenerator;
+import com.nextstep.recommendations.utils.CompiledConfig;
+import com.nextstep.recommendations.utils.Config;
+import com.nextstep.recommendations.utils.HeuristicScorer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Career-compatibility scoring over the compiled primitive tables, against the Map-based scoring it replaced
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CareerScoringBenchmark {
+    private static final int FIXTURES = 1024;
+
+    private StudentProfile[] profiles;
+    private int[][] olGrades;
+    private int[][] alGrades;
+    private double[] probabilities;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        StudentProfileGenerator generator = new StudentProfileGenerator(null, BenchmarkFixtures.SEED);
+        profiles = new StudentProfile[FIXTURES];
+        olGrades = new int[FIXTURES][];
+        alGrades = new int[FIXTURES][];
+        for (int i = 0; i < FIXTURES; i++) {
+            profiles[i] = generator.generateStudentProfile();
+            olGrades[i] = toGrades(profiles[i].getOlResults(), Config.OL_SUBJECTS);
+            alGrades[i] = toGrades(profiles[i].getAlResults(), Config.AL_SUBJECTS);
+        }
+        probabilities = new double[CompiledConfig.NUM_CAREERS];
+    }
+
+    @Benchmark
+    public double[] compiledTables() {
+        int i = next++ & (FIXTURES - 1);
+        StudentProfile profile = profiles[i];
+        HeuristicScorer.calculateProbabilities(profile.getEducationLevel(), olGrades[i], alGrades[i],
+                profile.getAlStream() != null ? profile.getAlStream() : -1,
+                profile.getZScore() != null ? profile.getZScore() : 0.0,
+                profile.getGpa() != null ? profile.getGpa() : 0.0, probabilities);
+        return probabilities;
+    }
+
+    @Benchmark
+    public Map<String, Double> configMaps() {
+        StudentProfile profile = profiles[next++ & (FIXTURES - 1)];
+        return MapScoring.calculateProbabilities(profile.getEducationLevel(), profile.getOlResults(),
+                profile.getAlResults(), profile.getAlStream(), profile.getZScore(), profile.getGpa());
+    }
+
+    private static int[] toGrades(Map<String, Double> results, Map<String, Integer> ids) {
+        int[] grades = new int[CompiledConfig.NUM_IDS];
+        Arrays.fill(grades, CompiledConfig.NO_GRADE);
+        if (results != null) {
+            results.forEach((subject, grade) -> grades[ids.get(subject)] = grade.intValue());
+        }
+        return grades;
+    }
+
+    // The scoring StudentProfileGenerator used before the Config tables were compiled, kept as the baseline
+    private static final class MapScoring {
+
+        static Map<String, Double> calculateProbabilities(int educationLevel, Map<String, Double> olGrades,
+                                                          Map<String, Double> alGrades, Integer alStream,
+                                                          Double zScore, Double gpa) {
+            Map<Integer, Integer> olGradesById = convertGradesToIds(olGrades, Config.OL_SUBJECTS);
+            Map<Integer, Integer> alGradesById = alGrades != null ? convertGradesToIds(alGrades, Config.AL_SUBJECTS) : new HashMap<>();
+
+            Map<String, Double> probabilities = new HashMap<>();
+            for (String career : Config.CAREERS.keySet()) {
+                double probability = Config.CAREER_COMPATIBILITY.get(Config.CAREERS.get(career))
+                        + calculateOLCareerBonus(career, olGradesById);
+                if (educationLevel >= 1) {
+                    probability += calculateALCareerBonus(career, alGradesById)
+                            + factor(career, Config.Z_SCORE_FACTOR) * (zScore != null ? zScore : 0.0)
+                            + (alStream != null ? bonuses(career).getOrDefault(alStream, 0.0) : 0.0);
+                }
+                if (educationLevel == 2) {
+                    probability += factor(career, Config.GPA_FACTOR) * (gpa != null ? gpa : 0.0);
+                }
+                probabilities.put(career, probability);
+            }
+            double total = probabilities.values().stream().mapToDouble(Double::doubleValue).sum();
+            return probabilities.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue() / total));
+        }
+
+        private static Map<Integer, Integer> convertGradesToIds(Map<String, Double> grades, Map<String, Integer> ids) {
+            Map<Integer, Integer> converted = new HashMap<>();
+            for (Map.Entry<String, Double> entry : grades.entrySet()) {
+                converted.put(ids.get(entry.getKey()), entry.getValue().intValue());
+            }
+            return converted;
+        }
+
+        private static double calculateOLCareerBonus(String career, Map<Integer, Integer> olGrades) {
+            double bonus = 0.0;
+            for (Map.Entry<Integer, Double> entry : bonuses(career).entrySet()) {
+                if (entry.getKey() == Config.Z_SCORE_FACTOR || entry.getKey() == Config.GPA_FACTOR) continue;
+                if (olGrades.containsKey(entry.getKey())) {
+                    bonus += entry.getValue() * (1.0 - (olGrades.get(entry.getKey()) * 0.2));
+                }
+            }
+            return bonus;
+        }
+
+        private static double calculateALCareerBonus(String career, Map<Integer, Integer> alGrades) {
+            double bonus = 0.0;
+            Map<Integer, Double> careerBonus = bonuses(career);
+            for (Map.Entry<Integer, Integer> entry : alGrades.entrySet()) {
+                if (careerBonus.containsKey(entry.getKey())) {
+                    bonus += careerBonus.get(entry.getKey()) * (1.0 - (entry.getValue() * 0.2));
+                }
+            }
+            return bonus;
+        }
+
+        private static double factor(String career, int factor) {
+            return bonuses(career).getOrDefault(factor, 0.0);
+        }
+
+        private static Map<Integer, Double> bonuses(String career) {
+            return Config.CAREER_COMPATIBILITY_BONUS.get(Config.CAREERS.get(career));
+        }
+    }
+}
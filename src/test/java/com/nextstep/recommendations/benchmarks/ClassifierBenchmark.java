@@ -0,0 +1,48 @@
+package com.nextstep.recommendations.benchmarks;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.utils.FeatureEncoder;
+import org.openjdk.jmh.annotations.*;
+import weka.classifiers.Classifier;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClassifierBenchmark {
+    private static final int FIXTURES = 1024;
+
+    private Classifier classifier;
+    private Instance[] instances;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        Instances header = BenchmarkFixtures.header();
+        FeatureEncoder encoder = new FeatureEncoder(header);
+        classifier = BenchmarkFixtures.classifier();
+
+        // Encoding happens here so only the classifier is measured
+        List<StudentProfile> profiles = BenchmarkFixtures.entities(FIXTURES);
+        instances = new Instance[FIXTURES];
+        for (int i = 0; i < FIXTURES; i++) {
+            double[] values = new double[encoder.numAttributes()];
+            encoder.encode(profiles.get(i), values);
+            instances[i] = new DenseInstance(1.0, values);
+            instances[i].setDataset(header);
+        }
+    }
+
+    @Benchmark
+    public double[] distributionForInstance() throws Exception {
+        return classifier.distributionForInstance(instances[next++ & (FIXTURES - 1)]);
+    }
+}
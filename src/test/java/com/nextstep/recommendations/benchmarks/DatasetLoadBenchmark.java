@@ -0,0 +1,46 @@
+package com.nextstep.recommendations.benchmarks;
+
+import com.nextstep.recommendations.utils.ColumnarDataset;
+import org.openjdk.jmh.annotations.*;
+import weka.core.Instances;
+import weka.core.converters.ConverterUtils.DataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Time to get the generated training set into Weka: parsing the ARFF text against mapping the columnar file
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DatasetLoadBenchmark {
+    private static final Path ARFF = Path.of("models/student_profiles.arff");
+
+    private Path columnar;
+
+    @Setup
+    public void setUp() throws Exception {
+        columnar = Files.createTempFile("student_profiles", ".col");
+        ColumnarDataset.fromArff(ARFF, columnar);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(columnar);
+    }
+
+    @Benchmark
+    public Instances arff() throws Exception {
+        Instances data = DataSource.read(ARFF.toString());
+        data.setClassIndex(data.numAttributes() - 1);
+        return data;
+    }
+
+    @Benchmark
+    public Instances columnar() throws Exception {
+        return ColumnarDataset.open(columnar).toInstances();
+    }
+}
@@ -0,0 +1,51 @@
+package com.nextstep.recommendations.benchmarks;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.utils.FeatureEncoder;
+import com.nextstep.recommendations.utils.FeatureStandardizer;
+import org.openjdk.jmh.annotations.*;
+import weka.core.Instances;
+import weka.core.converters.ConverterUtils.DataSource;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Stands in for the old Predictor.createInstance: encoding a profile into the attribute vector, raw and standardized
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FeatureEncoderBenchmark {
+    private static final int FIXTURES = 1024;
+
+    private List<StudentProfile> profiles;
+    private FeatureEncoder encoder;
+    private FeatureEncoder standardizingEncoder;
+    private double[] values;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        profiles = BenchmarkFixtures.entities(FIXTURES);
+        Instances header = BenchmarkFixtures.header();
+        encoder = new FeatureEncoder(header);
+        Instances training = DataSource.read(BenchmarkFixtures.MODEL_DIR + "student_profiles.arff");
+        training.setClassIndex(training.numAttributes() - 1);
+        standardizingEncoder = new FeatureEncoder(header, FeatureStandardizer.fit(training));
+        values = new double[encoder.numAttributes()];
+    }
+
+    @Benchmark
+    public double[] encode() {
+        encoder.encode(profiles.get(next++ & (FIXTURES - 1)), values);
+        return values;
+    }
+
+    @Benchmark
+    public double[] encodeStandardized() {
+        standardizingEncoder.encode(profiles.get(next++ & (FIXTURES - 1)), values);
+        return values;
+    }
+}
@@ -0,0 +1,49 @@
+package com.nextstep.recommendations.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nextstep.recommendations.dto.StudentProfileDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonBenchmark {
+    private static final int FIXTURES = 1024;
+
+    private ObjectReader reader;
+    private ObjectWriter writer;
+    private List<StudentProfileDTO> dtos;
+    private byte[][] payloads;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        reader = objectMapper.readerFor(StudentProfileDTO.class);
+        writer = objectMapper.writerFor(StudentProfileDTO.class);
+
+        dtos = BenchmarkFixtures.profiles(FIXTURES);
+        payloads = new byte[FIXTURES][];
+        for (int i = 0; i < FIXTURES; i++) {
+            payloads[i] = writer.writeValueAsBytes(dtos.get(i));
+        }
+    }
+
+    @Benchmark
+    public StudentProfileDTO deserialize() throws Exception {
+        return reader.readValue(payloads[next++ & (FIXTURES - 1)]);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(dtos.get(next++ & (FIXTURES - 1)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.nextstep.recommendations.benchmarks;
+
+import com.nextstep.recommendations.dto.StudentProfileDTO;
+import com.nextstep.recommendations.mapper.StudentProfileMapper;
+import com.nextstep.recommendations.model.StudentProfile;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+    private static final int FIXTURES = 1024;
+
+    private List<StudentProfileDTO> dtos;
+    private List<StudentProfile> entities;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        dtos = BenchmarkFixtures.profiles(FIXTURES);
+        entities = BenchmarkFixtures.entities(FIXTURES);
+    }
+
+    @Benchmark
+    public StudentProfile toEntity() {
+        return StudentProfileMapper.INSTANCE.toEntity(dtos.get(next++ & (FIXTURES - 1)));
+    }
+
+    @Benchmark
+    public StudentProfileDTO toDTO() {
+        return StudentProfileMapper.INSTANCE.toDTO(entities.get(next++ & (FIXTURES - 1)));
+    }
+}
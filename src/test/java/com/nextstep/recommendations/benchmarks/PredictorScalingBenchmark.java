@@ -0,0 +1,61 @@
+package com.nextstep.recommendations.benchmarks;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.utils.Predictor;
+import com.nextstep.recommendations.utils.TestModels;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Predictor throughput on one thread against every core, sharing one Predictor and its replica pool, so a drop in
+// per-thread throughput at full load shows contention on the scoring path. The prediction cache is off, so every
+// call reaches a classifier replica.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PredictorScalingBenchmark {
+    private static final int FIXTURES = 1024;
+
+    private Predictor predictor;
+
+    @State(Scope.Thread)
+    public static class Profiles {
+        private List<StudentProfile> profiles;
+        private int next;
+
+        // Each thread scores its own copies, since scoring writes the probabilities onto the profile
+        @Setup
+        public void setUp() {
+            profiles = BenchmarkFixtures.entities(FIXTURES);
+        }
+
+        StudentProfile next() {
+            return profiles.get(next++ & (FIXTURES - 1));
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        Path modelDir = TestModels.createModelDir(Files.createTempDirectory("predictor-benchmark"));
+        predictor = TestModels.predictor(modelDir, new SimpleMeterRegistry()).maxIdleReplicas(0).build();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public StudentProfile oneThread(Profiles profiles) throws Exception {
+        return predictor.updateCareerProbabilities(profiles.next());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public StudentProfile allThreads(Profiles profiles) throws Exception {
+        return predictor.updateCareerProbabilities(profiles.next());
+    }
+}
@@ -0,0 +1,134 @@
+package com.nextstep.recommendations.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load generator for POST /predictions/career-prediction.
+ * <p>
+ * Start the service once per configuration with the same Hikari pool size, then run
+ * {@code ./mvnw -Ploadtest test-compile exec:java@loadtest} against each:
+ * <ul>
+ *     <li>platform threads: {@code ./mvnw spring-boot:run}</li>
+ *     <li>virtual threads: {@code ./mvnw -Pjava21 spring-boot:run -Dspring-boot.run.profiles=virtual-threads}</li>
+ * </ul>
+ * Settings are system properties: {@code loadtest.url}, {@code loadtest.concurrency} (comma separated steps),
+ * {@code loadtest.duration} (seconds per step) and {@code loadtest.p99-slo-ms}.
+ */
+public class PredictionLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("loadtest.url", "http://localhost:8082") + "/predictions/career-prediction";
+        int[] steps = Arrays.stream(System.getProperty("loadtest.concurrency", "16,64,256,1024").split(","))
+                .mapToInt(step -> Integer.parseInt(step.trim()))
+                .toArray();
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 30L));
+        double sloMillis = Double.parseDouble(System.getProperty("loadtest.p99-slo-ms", "100"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        // A short warm-up so JIT compilation and pool growth are not billed to the first step
+        runStep(client, url, steps[0], Duration.ofSeconds(5));
+
+        double maxSustainableRps = 0;
+        System.out.printf("%-12s %12s %10s %10s %8s%n", "concurrency", "rps", "p50 ms", "p99 ms", "errors");
+        for (int concurrency : steps) {
+            StepResult result = runStep(client, url, concurrency, duration);
+            System.out.printf(Locale.ROOT, "%-12d %12.1f %10.2f %10.2f %8d%n",
+                    concurrency, result.rps(), result.p50Millis(), result.p99Millis(), result.errors());
+            if (result.errors() == 0 && result.p99Millis() <= sloMillis) {
+                maxSustainableRps = Math.max(maxSustainableRps, result.rps());
+            }
+        }
+        System.out.printf(Locale.ROOT, "max sustainable rps (p99 <= %.0f ms, no errors): %.1f%n", sloMillis, maxSustainableRps);
+        System.exit(0);
+    }
+
+    private static StepResult runStep(HttpClient client, String url, int concurrency, Duration duration) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> futures = new ArrayList<>(concurrency);
+        long[] errors = new long[concurrency];
+
+        for (int worker = 0; worker < concurrency; worker++) {
+            int id = worker;
+            futures.add(workers.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                            .header("Content-Type", "application/json")
+                            .header("UUID", UUID.randomUUID().toString())
+                            .POST(HttpRequest.BodyPublishers.ofString(randomProfile()))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors[id]++;
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        errors[id]++;
+                        continue;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        workers.shutdown();
+
+        Arrays.sort(all);
+        return new StepResult(all.length / (duration.toNanos() / 1e9),
+                percentile(all, 0.50), percentile(all, 0.99), Arrays.stream(errors).sum());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+
+    private static String randomProfile() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder json = new StringBuilder("{\"educationLevel\":0,\"olResults\":{");
+        for (int subject = 0; subject < 6; subject++) {
+            if (subject > 0) {
+                json.append(',');
+            }
+            json.append('"').append(subject).append("\":").append(random.nextInt(5));
+        }
+        return json.append("}}").toString();
+    }
+
+    private record StepResult(double rps, double p50Millis, double p99Millis, long errors) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.nextstep.recommendations.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.utils.Predictor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class CohortSummaryRepositoryTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockitoBean
+    private Predictor predictor;
+
+    @Autowired
+    private RecommendationRepository recommendationRepository;
+
+    @Autowired
+    private CompactProfileRepository compactProfileRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void eachStorageModeSummarizesItsOwnLayoutInItsOwnView() {
+        List<StudentProfile> profiles = List.of(
+                profile(1, 6, Map.of("Medicine", 0.2, "IT", 0.8)),
+                profile(1, 6, Map.of("Medicine", 0.6, "IT", 0.4)),
+                profile(0, null, Map.of("Medicine", 0.5, "IT", 0.5)));
+        save(new ElementCollectionProfileStore(recommendationRepository, jdbcTemplate, transactionManager), profiles);
+        save(new CompactProfileStore(compactProfileRepository, jdbcTemplate, transactionManager, objectMapper), profiles);
+
+        CohortSummaryRepository elementCollection = new CohortSummaryRepository(jdbcTemplate, "element-collection");
+        CohortSummaryRepository compact = new CohortSummaryRepository(jdbcTemplate, "compact");
+        for (CohortSummaryRepository repository : List.of(elementCollection, compact)) {
+            // Creating twice is harmless, and each mode's view exists alongside the other's
+            repository.create();
+            repository.create();
+            repository.refresh();
+        }
+
+        List<CohortCareerTotal> fromElementCollection = sorted(elementCollection.findAll());
+        List<CohortCareerTotal> fromCompact = sorted(compact.findAll());
+        assertThat(fromElementCollection).hasSize(4);
+        assertThat(fromCompact).hasSize(fromElementCollection.size());
+        for (int i = 0; i < fromCompact.size(); i++) {
+            CohortCareerTotal expected = fromElementCollection.get(i);
+            CohortCareerTotal actual = fromCompact.get(i);
+            assertThat(actual.getEducationLevel()).isEqualTo(expected.getEducationLevel());
+            assertThat(actual.getAlStream()).isEqualTo(expected.getAlStream());
+            assertThat(actual.getProfiles()).isEqualTo(expected.getProfiles());
+            assertThat(actual.getCareer()).isEqualTo(expected.getCareer());
+            assertThat(actual.getProbabilitySum()).isCloseTo(expected.getProbabilitySum(), within(1e-9));
+        }
+        CohortCareerTotal medicine = fromCompact.stream()
+                .filter(total -> total.getEducationLevel() == 1 && "Medicine".equals(total.getCareer()))
+                .findFirst().orElseThrow();
+        assertThat(medicine.getAlStream()).isEqualTo(6);
+        assertThat(medicine.getProfiles()).isEqualTo(2);
+        assertThat(medicine.getProbabilitySum()).isCloseTo(0.8, within(1e-9));
+    }
+
+    private void save(ProfileStore store, List<StudentProfile> profiles) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        profiles.forEach(profile -> transactionTemplate.executeWithoutResult(status -> store.save(profile)));
+    }
+
+    private static List<CohortCareerTotal> sorted(List<CohortCareerTotal> totals) {
+        return totals.stream()
+                .sorted(Comparator.comparing(CohortCareerTotal::getEducationLevel)
+                        .thenComparing(CohortCareerTotal::getCareer))
+                .toList();
+    }
+
+    private static StudentProfile profile(int educationLevel, Integer alStream, Map<String, Double> careerProbabilities) {
+        StudentProfile profile = new StudentProfile();
+        profile.setId(UUID.randomUUID());
+        profile.setEducationLevel(educationLevel);
+        profile.setAlStream(alStream);
+        profile.setOlResults(Map.of("0", 4.0));
+        profile.setAlResults(alStream != null ? Map.of("0", 3.0) : Map.of());
+        profile.setCareerProbabilities(careerProbabilities);
+        return profile;
+    }
+}
@@ -0,0 +1,61 @@
+package com.nextstep.recommendations.repository;
+
+import com.nextstep.recommendations.model.ModelRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ModelRegistryStoreTests {
+
+    private final ModelRegistryRepository repository = mock(ModelRegistryRepository.class);
+
+    @Test
+    void lookupsAreServedFromTheSnapshot() {
+        when(repository.findLatestId()).thenReturn(1L);
+        when(repository.findLatestVersions()).thenReturn(List.of(entry("stream_6", 6, 1)));
+        ModelRegistryStore store = store();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(store.latest("stream_6")).get().extracting(ModelRegistry::getVersion).isEqualTo(1);
+        }
+        assertThat(store.latest("ol")).isEmpty();
+        verify(repository, times(1)).findLatestVersions();
+        store.shutdown();
+    }
+
+    @Test
+    void reloadsAndNotifiesOnlyWhenANewVersionIsRegistered() {
+        when(repository.findLatestId()).thenReturn(1L);
+        when(repository.findLatestVersions()).thenReturn(List.of(entry("ol", null, 1)));
+        ModelRegistryStore store = store();
+        AtomicInteger changes = new AtomicInteger();
+        store.onChange(changes::incrementAndGet);
+
+        store.poll();
+        assertThat(changes).hasValue(0);
+
+        when(repository.findLatestId()).thenReturn(2L);
+        when(repository.findLatestVersions()).thenReturn(List.of(entry("ol", null, 2)));
+        store.poll();
+
+        assertThat(changes).hasValue(1);
+        assertThat(store.latest("ol")).get().extracting(ModelRegistry::getVersion).isEqualTo(2);
+        verify(repository, times(2)).findLatestVersions();
+        store.shutdown();
+    }
+
+    private ModelRegistryStore store() {
+        return new ModelRegistryStore(repository, Duration.ofHours(1), new SimpleMeterRegistry());
+    }
+
+    private static ModelRegistry entry(String name, Integer streamId, int version) {
+        return new ModelRegistry(name, streamId, version, LocalDateTime.now(), name + "_v" + version + ".model");
+    }
+}
@@ -0,0 +1,125 @@
+package com.nextstep.recommendations.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.utils.Predictor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class ProfileStoreBenchmarkTests {
+
+    private static final int PROFILES = 500;
+    private static final String[] CAREERS = {"Medicine", "Engineering", "IT", "Research", "Business", "Teaching"};
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "shared_preload_libraries=pg_stat_statements");
+
+    @MockitoBean
+    private Predictor predictor;
+
+    @Autowired
+    private RecommendationRepository recommendationRepository;
+
+    @Autowired
+    private CompactProfileRepository compactProfileRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void compactLayoutWritesWithFewerStatements() {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_stat_statements");
+
+        Result elementCollection = run(new ElementCollectionProfileStore(recommendationRepository, jdbcTemplate, transactionManager));
+        Result compact = run(new CompactProfileStore(compactProfileRepository, jdbcTemplate, transactionManager, objectMapper));
+
+        // The compact layout writes a profile as one upsert; the element collections write at least a row per career
+        assertThat(compact.statementsPerPrediction()).isEqualTo(1.0);
+        assertThat(elementCollection.statementsPerPrediction()).isGreaterThanOrEqualTo(CAREERS.length);
+    }
+
+    private Result run(ProfileStore store) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Random random = new Random(7L);
+        List<StudentProfile> profiles = new ArrayList<>(PROFILES);
+        for (int i = 0; i < PROFILES; i++) {
+            profiles.add(randomProfile(UUID.randomUUID(), random));
+        }
+
+        // Every profile is written, then re-predicted and written again, as repeated POSTs do
+        jdbcTemplate.execute("SELECT pg_stat_statements_reset()");
+        for (int pass = 0; pass < 2; pass++) {
+            for (StudentProfile profile : profiles) {
+                StudentProfile prediction = randomProfile(profile.getId(), random);
+                transactionTemplate.executeWithoutResult(status -> store.save(prediction));
+            }
+        }
+        // Only statements on the profile tables count, not transaction control or connection checks
+        Long statements = jdbcTemplate.queryForObject("SELECT coalesce(sum(calls), 0) FROM pg_stat_statements"
+                + " WHERE query NOT ILIKE '%pg_stat_statements%' AND (query ILIKE '%student_profiles%'"
+                + " OR query ILIKE '%ol_results%' OR query ILIKE '%al_results%' OR query ILIKE '%career_probabilities%')",
+                Long.class);
+
+        return new Result(statements, 2 * PROFILES);
+    }
+
+    private static StudentProfile randomProfile(UUID id, Random random) {
+        StudentProfile profile = new StudentProfile();
+        profile.setId(id);
+        profile.setEducationLevel(1);
+        profile.setAlStream(6 + random.nextInt(4));
+
+        Map<String, Double> olResults = new HashMap<>();
+        for (int subject = 0; subject < 6; subject++) {
+            olResults.put(String.valueOf(subject), (double) random.nextInt(5));
+        }
+        profile.setOlResults(olResults);
+
+        Map<String, Double> alResults = new HashMap<>();
+        for (int subject = 0; subject < 3; subject++) {
+            alResults.put(String.valueOf(subject), (double) random.nextInt(5));
+        }
+        profile.setAlResults(alResults);
+
+        Map<String, Double> careerProbabilities = new HashMap<>();
+        for (String career : CAREERS) {
+            careerProbabilities.put(career, random.nextDouble());
+        }
+        profile.setCareerProbabilities(careerProbabilities);
+        return profile;
+    }
+
+    private record Result(long statements, int predictions) {
+        double statementsPerPrediction() {
+            return (double) statements / predictions;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.nextstep.recommendations.service;
+
+import com.nextstep.recommendations.dto.CohortSummaryDTO;
+import com.nextstep.recommendations.repository.CohortCareerTotal;
+import com.nextstep.recommendations.repository.CohortSummaryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+class CohortAnalyticsServiceTests {
+
+    private final CohortSummaryRepository repository = mock(CohortSummaryRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void answersCohortsAndRollUpsFromTheSnapshot() {
+        when(repository.findAll()).thenReturn(List.of(
+                new CohortCareerTotal(0, null, 10, "Medicine", 2.0),
+                new CohortCareerTotal(0, null, 10, "IT", 8.0),
+                new CohortCareerTotal(1, 6, 20, "Medicine", 4.0),
+                new CohortCareerTotal(1, 6, 20, "IT", 16.0),
+                new CohortCareerTotal(1, 7, 30, "Medicine", 27.0)));
+        CohortAnalyticsService service = new CohortAnalyticsService(repository, Duration.ofMinutes(5), meterRegistry);
+        service.refresh();
+
+        CohortSummaryDTO stream = service.cohort(1, 6).orElseThrow();
+        CohortSummaryDTO level = service.cohort(1, null).orElseThrow();
+        CohortSummaryDTO everyone = service.cohort(null, null).orElseThrow();
+
+        assertThat(stream.getProfiles()).isEqualTo(20);
+        assertThat(stream.getAverageCareerProbabilities().get("Medicine")).isCloseTo(0.2, within(1e-9));
+        assertThat(level.getProfiles()).isEqualTo(50);
+        assertThat(level.getAverageCareerProbabilities().get("Medicine")).isCloseTo(31.0 / 50, within(1e-9));
+        assertThat(level.getAverageCareerProbabilities().get("IT")).isCloseTo(16.0 / 50, within(1e-9));
+        assertThat(everyone.getProfiles()).isEqualTo(60);
+        assertThat(service.cohorts()).hasSize(3);
+        assertThat(service.cohort(2, null)).isEmpty();
+        service.shutdown();
+    }
+
+    @Test
+    void keepsTheLastSnapshotWhenARefreshFails() {
+        when(repository.findAll()).thenReturn(List.of(new CohortCareerTotal(0, null, 10, "IT", 5.0)));
+        CohortAnalyticsService service = new CohortAnalyticsService(repository, Duration.ofMinutes(5), meterRegistry);
+        service.refresh();
+        doThrow(new IllegalStateException("database unavailable")).when(repository).refresh();
+
+        service.refresh();
+
+        assertThat(service.cohort(0, null)).get().extracting(CohortSummaryDTO::getProfiles).isEqualTo(10L);
+        assertThat(meterRegistry.counter("analytics.refresh.failures").count()).isEqualTo(1.0);
+        service.shutdown();
+    }
+
+    @Test
+    void retriesCreatingTheViewUntilItSucceeds() {
+        when(repository.findAll()).thenReturn(List.of(new CohortCareerTotal(0, null, 10, "IT", 5.0)));
+        doThrow(new IllegalStateException("database unavailable")).doNothing().when(repository).create();
+        CohortAnalyticsService service = new CohortAnalyticsService(repository, Duration.ofMinutes(5), meterRegistry);
+
+        service.refresh();
+        assertThat(service.cohorts()).isEmpty();
+        assertThat(meterRegistry.counter("analytics.refresh.failures").count()).isEqualTo(1.0);
+
+        service.refresh();
+        service.refresh();
+        assertThat(service.cohort(0, null)).isPresent();
+        verify(repository, times(2)).create();
+        service.shutdown();
+    }
+}
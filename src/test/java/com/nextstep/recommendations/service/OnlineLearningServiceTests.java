@@ -0,0 +1,196 @@
+package com.nextstep.recommendations.service;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.repository.ProfileStore;
+import com.nextstep.recommendations.utils.HeuristicScorer;
+import com.nextstep.recommendations.utils.Predictor;
+import com.nextstep.recommendations.utils.TestModels;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OnlineLearningServiceTests {
+
+    @TempDir
+    Path modelDir;
+
+    @TempDir
+    Path otherModelDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FeedProfileStore profileStore = new FeedProfileStore();
+
+    @Test
+    void keepsTheShadowOffTheServingPathUntilItHasLearnedEnough() throws Exception {
+        Predictor predictor = predictor();
+        OnlineLearningService learner = learner(predictor, modelDir, 50, 0.0, Duration.ZERO);
+        profileStore.append(30);
+
+        learner.poll();
+        assertThat(predictor.getModelVersion()).isEqualTo(HeuristicScorer.VERSION);
+        assertThat(modelDir.resolve(OnlineLearningService.MODEL_FILE)).doesNotExist();
+
+        // Held-out profiles are scored, never learned
+        profileStore.append(90);
+        learner.poll();
+        String published = predictor.getModelVersion();
+        assertThat(published).startsWith("online-");
+        assertThat(learned()).isGreaterThanOrEqualTo(50.0).isLessThan(120.0);
+
+        // Nothing new in the feed, so nothing is relearned or republished
+        double learned = learned();
+        learner.poll();
+        assertThat(predictor.getModelVersion()).isEqualTo(published);
+        assertThat(learned()).isEqualTo(learned);
+        learner.shutdown();
+    }
+
+    @Test
+    void rejectsAShadowThatDoesNotBeatTheServingModel() throws Exception {
+        Predictor predictor = predictor();
+        OnlineLearningService first = learner(predictor, modelDir, 0, 0.0, Duration.ZERO);
+        profileStore.append(100);
+        first.poll();
+        first.shutdown();
+        String serving = predictor.getModelVersion();
+        assertThat(serving).startsWith("online-");
+
+        // A second shadow, learning the same feed, cannot beat the model now serving by half the holdout
+        OnlineLearningService second = learner(predictor, otherModelDir, 0, 0.5, Duration.ZERO);
+        second.poll();
+        assertThat(predictor.getModelVersion()).isEqualTo(serving);
+        assertThat(meterRegistry.counter("model.online.publish.rejected").count()).isEqualTo(1.0);
+        assertThat(otherModelDir.resolve(OnlineLearningService.MODEL_FILE)).doesNotExist();
+        second.shutdown();
+    }
+
+    @Test
+    void scoresTheHoldoutOffTheServingPath() throws Exception {
+        Predictor predictor = predictor();
+        OnlineLearningService first = learner(predictor, modelDir, 0, 0.0, Duration.ZERO);
+        profileStore.append(100);
+        first.poll();
+        first.shutdown();
+        String serving = predictor.getModelVersion();
+        assertThat(serving).startsWith("online-");
+
+        // The second gate scores the holdout on the serving model, but no request did
+        OnlineLearningService second = learner(predictor, otherModelDir, 0, 0.5, Duration.ZERO);
+        second.poll();
+        assertThat(meterRegistry.counter("model.online.publish.rejected").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("prediction.stage").tag("model", serving).timers()).isEmpty();
+        second.shutdown();
+    }
+
+    @Test
+    void resumesLearningButServesAgainOnlyThroughTheGate() throws Exception {
+        OnlineLearningService learner = learner(predictor(), modelDir, 50, 0.0, Duration.ZERO);
+        profileStore.append(100);
+        learner.poll();
+        learner.shutdown();
+        double learned = learned();
+
+        // A restart restores the shadow, its cursor and its learned count, without publishing it
+        Predictor restarted = predictor();
+        OnlineLearningService resumed = learner(restarted, modelDir, 50, 0.0, Duration.ZERO);
+        assertThat(restarted.getModelVersion()).isEqualTo(HeuristicScorer.VERSION);
+
+        // The learned count carries over, so the new profiles only have to refill the holdout
+        profileStore.append(100);
+        resumed.poll();
+        assertThat(learned()).isGreaterThan(learned).isLessThan(200.0);
+        assertThat(restarted.getModelVersion()).startsWith("online-");
+        resumed.shutdown();
+    }
+
+    @Test
+    void leavesProfilesInsideTheFeedLagForALaterPoll() throws Exception {
+        OnlineLearningService learner = learner(predictor(), modelDir, 0, 0.0, Duration.ofHours(1));
+        profileStore.appendUpdatedAt(LocalDateTime.now(), 10);
+
+        learner.poll();
+        assertThat(learned()).isZero();
+        learner.shutdown();
+    }
+
+    private double learned() {
+        return meterRegistry.counter("model.online.profiles").count();
+    }
+
+    private Predictor predictor() throws Exception {
+        return TestModels.predictor(modelDir, meterRegistry).build();
+    }
+
+    private OnlineLearningService learner(Predictor predictor, Path dir, long minProfiles, double minAccuracyGain,
+                                          Duration feedLag) throws Exception {
+        return new OnlineLearningService(profileStore, predictor, new HeuristicScorer(), dir.toString(),
+                "weka.classifiers.bayes.NaiveBayesUpdateable", 10, Duration.ofHours(1), Duration.ZERO, feedLag,
+                minProfiles, 20, 100, 0.0, minAccuracyGain, meterRegistry);
+    }
+
+    // An in-memory change feed ordered by (updatedAt, id), like the stores' keyset query
+    private static final class FeedProfileStore implements ProfileStore {
+        private final List<StudentProfile> profiles = new ArrayList<>();
+
+        private LocalDateTime clock = LocalDateTime.now().minusHours(2);
+        private int sequence;
+
+        // Profiles saved in sequence, long enough ago to be outside any feed lag
+        void append(int count) {
+            for (int i = 0; i < count; i++) {
+                clock = clock.plusNanos(1000);
+                appendUpdatedAt(clock, 1);
+            }
+        }
+
+        void appendUpdatedAt(LocalDateTime updatedAt, int count) {
+            for (int i = 0; i < count; i++) {
+                StudentProfile profile = new StudentProfile();
+                profile.setId(UUID.randomUUID());
+                profile.setEducationLevel(0);
+                int grade = sequence++;
+                profile.setOlResults(Map.of("0", (double) (grade % 5), "1", (double) ((grade + 2) % 5)));
+                profile.setUpdatedAt(updatedAt);
+                profiles.add(profile);
+            }
+        }
+
+        @Override
+        public List<StudentProfile> findUpdatedAfter(LocalDateTime updatedAt, UUID id, LocalDateTime before, int limit) {
+            return profiles.stream()
+                    .filter(p -> p.getUpdatedAt().isAfter(updatedAt)
+                            || (p.getUpdatedAt().isEqual(updatedAt) && p.getId().compareTo(id) > 0))
+                    .filter(p -> p.getUpdatedAt().isBefore(before))
+                    .sorted(Comparator.comparing(StudentProfile::getUpdatedAt).thenComparing(StudentProfile::getId))
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public void save(StudentProfile studentProfile) {
+            profiles.add(studentProfile);
+        }
+
+        @Override
+        public void saveAll(List<StudentProfile> studentProfiles) {
+            profiles.addAll(studentProfiles);
+        }
+
+        @Override
+        public Optional<StudentProfile> findById(UUID id) {
+            return profiles.stream().filter(p -> p.getId().equals(id)).findFirst();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.nextstep.recommendations.service;
+
+import com.nextstep.recommendations.dto.StudentProfileDTO;
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.repository.ProfileStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class RecommendationCacheTests {
+
+    private final ProfileStore profileStore = mock(ProfileStore.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecommendationCache cache = new RecommendationCache(profileStore, 100, Duration.ofMinutes(10), 0, meterRegistry);
+
+    @Test
+    void readsThroughOnceAndCountsHits() {
+        UUID id = UUID.randomUUID();
+        when(profileStore.findById(id)).thenReturn(Optional.of(profile(id, 0.7)));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(cache.get(id)).get().extracting(StudentProfileDTO::getCareerProbabilities).isEqualTo(Map.of("IT", 0.7));
+        }
+
+        verify(profileStore, times(1)).findById(id);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "recommendations").tag("result", "hit").functionCounter().count())
+                .isEqualTo(9.0);
+    }
+
+    @Test
+    void writesReplaceEntriesAndUnknownIdsAreNotCached() {
+        UUID id = UUID.randomUUID();
+        when(profileStore.findById(id)).thenReturn(Optional.of(profile(id, 0.7)));
+        cache.get(id);
+
+        StudentProfileDTO rescored = new StudentProfileDTO();
+        rescored.setId(id);
+        rescored.setCareerProbabilities(Map.of("IT", 0.9));
+        cache.put(rescored);
+        UUID unknown = UUID.randomUUID();
+        cache.get(unknown);
+        cache.get(unknown);
+
+        assertThat(cache.get(id)).get().isSameAs(rescored);
+        verify(profileStore, times(1)).findById(id);
+        verify(profileStore, times(2)).findById(unknown);
+    }
+
+    private static StudentProfile profile(UUID id, double probability) {
+        StudentProfile profile = new StudentProfile();
+        profile.setId(id);
+        profile.setCareerProbabilities(Map.of("IT", probability));
+        return profile;
+    }
+}
@@ -0,0 +1,94 @@
+package com.nextstep.recommendations.service;
+
+import com.nextstep.recommendations.dto.StudentProfileDTO;
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.repository.ProfileStore;
+import com.nextstep.recommendations.utils.ProfileVectors;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SimilarProfilesServiceTests {
+
+    private final RecommendationCache recommendationCache = mock(RecommendationCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SimilarProfilesService service = new SimilarProfilesService(mock(ProfileStore.class), recommendationCache,
+            8, 50, 50, false, 100, 0.2, meterRegistry);
+
+    @AfterEach
+    void shutdown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        service.shutdown();
+    }
+
+    @Test
+    void indexesASavedProfileOnlyOnceItsTransactionCommits() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        service.index(profile(UUID.randomUUID()));
+        service.index(profile(UUID.randomUUID()));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(2);
+        assertThat(service.size()).isZero();
+
+        // One save rolls back and is never indexed, the other commits
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        synchronizations.get(1).afterCommit();
+        service.awaitIdle(2, TimeUnit.SECONDS);
+        assertThat(service.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildsTheGraphOnceTombstonesPassTheThreshold() {
+        when(recommendationCache.get(any())).thenReturn(Optional.of(new StudentProfileDTO()));
+        Random random = new Random(3);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(UUID.randomUUID());
+            service.add(ids.get(i), randomVector(random));
+        }
+
+        // Re-saving a fifth of the profiles leaves a tombstone each, until the graph is rebuilt without them
+        for (int i = 0; i < 30; i++) {
+            service.add(ids.get(i), randomVector(random));
+        }
+
+        assertThat(meterRegistry.counter("similarity.index.compactions").count()).isEqualTo(1.0);
+        assertThat(service.size()).isEqualTo(100);
+        for (UUID id : ids) {
+            assertThat(service.similar(id, 5)).get().asList().hasSize(5);
+        }
+    }
+
+    private static StudentProfile profile(UUID id) {
+        StudentProfile profile = new StudentProfile();
+        profile.setId(id);
+        profile.setEducationLevel(0);
+        profile.setOlResults(Map.of("0", 1.0));
+        return profile;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[ProfileVectors.DIMENSIONS];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = random.nextFloat();
+        }
+        return vector;
+    }
+}
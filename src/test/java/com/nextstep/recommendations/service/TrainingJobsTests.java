@@ -0,0 +1,50 @@
+package com.nextstep.recommendations.service;
+
+import com.nextstep.recommendations.dto.TrainingJobDTO;
+import com.nextstep.recommendations.dto.TrainingReportDTO;
+import com.nextstep.recommendations.utils.Predictor;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class TrainingJobsTests {
+
+    private final TrainingService trainingService = mock(TrainingService.class);
+    private final Predictor predictor = mock(Predictor.class);
+    private final TrainingJobs trainingJobs = new TrainingJobs(trainingService, predictor, 10);
+
+    @Test
+    void runsInTheBackgroundAndPublishesBeforeSucceeding() {
+        CompletableFuture<TrainingReportDTO> training = new CompletableFuture<>();
+        when(trainingService.train("ol", true)).thenReturn(training);
+        when(predictor.reload()).thenReturn(CompletableFuture.completedFuture("v2"));
+
+        TrainingJobDTO job = trainingJobs.submit("ol", true);
+        assertThat(trainingJobs.find(job.getId())).get().extracting(TrainingJobDTO::getStatus).isEqualTo(TrainingJobDTO.Status.RUNNING);
+        verify(predictor, never()).reload();
+
+        training.complete(new TrainingReportDTO());
+        TrainingJobDTO finished = trainingJobs.find(job.getId()).orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo(TrainingJobDTO.Status.SUCCEEDED);
+        assertThat(finished.getReport().isPublished()).isTrue();
+        verify(predictor).reload();
+    }
+
+    @Test
+    void reportsFailedRunsAndRejectsUnknownTargetsUpfront() {
+        when(trainingService.train("uni", false))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("Not enough generated profiles")));
+
+        TrainingJobDTO job = trainingJobs.submit("uni", false);
+
+        TrainingJobDTO finished = trainingJobs.find(job.getId()).orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo(TrainingJobDTO.Status.FAILED);
+        assertThat(finished.getError()).isEqualTo("Not enough generated profiles");
+        assertThatThrownBy(() -> trainingJobs.submit("no_such_target", false)).isInstanceOf(IllegalArgumentException.class);
+        verify(predictor, never()).reload();
+    }
+}
@@ -0,0 +1,111 @@
+package com.nextstep.recommendations.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextstep.recommendations.dto.TrainingReportDTO;
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.src.StudentProfileGenerator;
+import com.nextstep.recommendations.utils.Config;
+import com.nextstep.recommendations.utils.HeuristicScorer;
+import com.nextstep.recommendations.utils.Predictor;
+import com.nextstep.recommendations.utils.TestModels;
+import com.nextstep.recommendations.utils.TrainingSetBuilder;
+import com.nextstep.recommendations.utils.TrainingTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import weka.core.Instances;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrainingServiceTests {
+
+    @TempDir
+    Path modelDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void writesVersionedModelsThatServe() throws Exception {
+        TrainingService trainingService = trainingService();
+        TrainingTarget target = TrainingTarget.parse(TrainingTarget.CAREER_PREDICTION);
+        Instances data = generatedTrainingSet(target, 600);
+
+        TrainingReportDTO first = trainingService.train(target, data, false);
+        TrainingReportDTO second = trainingService.train(target, data, true);
+
+        assertThat(first.getVersion()).isEqualTo(1);
+        assertThat(second.getVersion()).isEqualTo(2);
+        assertThat(second.isPublished()).isTrue();
+        assertThat(first.getFolds()).isEqualTo(4);
+        assertThat(first.getAccuracy()).isGreaterThan(40.0);
+        assertThat(target.modelFile(modelDir, 1)).isRegularFile();
+        assertThat(target.schemaFile(modelDir, 1)).isRegularFile();
+        assertThat(target.scalingFile(modelDir, 1)).isRegularFile();
+        assertThat(modelDir.resolve("career_prediction.scaling")).isRegularFile();
+        assertThat(new ObjectMapper().readValue(target.metricsFile(modelDir, 1).toFile(), TrainingReportDTO.class).getAccuracy())
+                .isEqualTo(first.getAccuracy());
+
+        Predictor predictor = TestModels.predictor(modelDir, meterRegistry).fallbackEnabled(false).build();
+        StudentProfile scored = predictor.updateCareerProbabilities(generatedProfiles(1, 99L).keySet().iterator().next());
+
+        assertThat(predictor.getModelVersion()).isNotEqualTo(HeuristicScorer.VERSION);
+        assertThat(scored.getCareerProbabilities()).containsOnlyKeys(Config.CAREERS.keySet());
+    }
+
+    @Test
+    void streamModelsUseTheirOwnFeaturesAndDirectory() throws Exception {
+        TrainingTarget target = TrainingTarget.parse("stream_" + Config.AL_STREAMS.get("Physical Science"));
+        Instances data = generatedTrainingSet(target, 2000);
+
+        TrainingReportDTO report = trainingService().train(target, data, false);
+
+        assertThat(report.getModelFile()).isEqualTo("stream_models/stream_6_v1.model");
+        assertThat(data.attribute("AL_stream")).isNull();
+        assertThat(data.attribute("education_level")).isNull();
+        assertThat(data.numInstances()).isPositive();
+    }
+
+    private TrainingService trainingService() {
+        return new TrainingService(null, Optional.empty(), modelDir.toString(), "weka.classifiers.trees.J48 -C 0.25 -M 2",
+                4, 2, 1, 100, new ObjectMapper(), meterRegistry);
+    }
+
+    private static Instances generatedTrainingSet(TrainingTarget target, int count) {
+        TrainingSetBuilder builder = new TrainingSetBuilder(target);
+        generatedProfiles(count, 42L).forEach(builder::add);
+        return builder.build();
+    }
+
+    // Generator output as TrainingDataRepository hands it on: results keyed by subject id, labelled by the top career
+    private static Map<StudentProfile, Integer> generatedProfiles(int count, long seed) {
+        StudentProfileGenerator generator = new StudentProfileGenerator(null, seed);
+        Map<StudentProfile, Integer> profiles = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            com.nextstep.recommendations.src.StudentProfile generated = generator.generateStudentProfile();
+            StudentProfile profile = new StudentProfile();
+            profile.setEducationLevel(generated.getEducationLevel());
+            profile.setOlResults(byId(generated.getOlResults(), Config.OL_SUBJECTS));
+            profile.setAlStream(generated.getAlStream());
+            profile.setAlResults(byId(generated.getAlResults(), Config.AL_SUBJECTS));
+            profile.setGpa(generated.getGpa());
+            String career = Collections.max(generated.getCareerProbabilities().entrySet(), Map.Entry.comparingByValue()).getKey();
+            profiles.put(profile, Config.CAREERS.get(career));
+        }
+        return profiles;
+    }
+
+    private static Map<String, Double> byId(Map<String, Double> results, Map<String, Integer> subjectIds) {
+        Map<String, Double> byId = new HashMap<>();
+        if (results != null) {
+            results.forEach((subject, grade) -> byId.put(String.valueOf(subjectIds.get(subject)), grade));
+        }
+        return byId;
+    }
+}
@@ -0,0 +1,216 @@
+package com.nextstep.recommendations.service;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import com.nextstep.recommendations.repository.ProfileStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteBehindQueueTests {
+
+    private static final String WRITER = "prediction-write-behind";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecordingProfileStore profileStore = new RecordingProfileStore();
+    private WriteBehindQueue queue;
+
+    @AfterEach
+    void stop() {
+        profileStore.release.countDown();
+        if (queue != null && queue.isRunning()) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void flushesAsSoonAsABatchIsFull() throws Exception {
+        queue = start(100, 3, Duration.ofSeconds(10), Duration.ofMillis(50));
+        List<StudentProfile> profiles = profiles(3);
+        for (StudentProfile profile : profiles) {
+            queue.enqueue(profile);
+        }
+
+        profileStore.await(3, Duration.ofSeconds(2));
+        assertThat(profileStore.batches()).containsExactly(ids(profiles));
+    }
+
+    @Test
+    void flushesAPartialBatchOnceTheIntervalPasses() throws Exception {
+        queue = start(100, 100, Duration.ofMillis(100), Duration.ofMillis(50));
+        List<StudentProfile> profiles = profiles(2);
+        for (StudentProfile profile : profiles) {
+            queue.enqueue(profile);
+        }
+
+        profileStore.await(2, Duration.ofSeconds(2));
+        assertThat(profileStore.batches()).containsExactly(ids(profiles));
+    }
+
+    @Test
+    void writesInlineWhenTheBufferIsFull() throws Exception {
+        profileStore.blockWriter = true;
+        queue = start(1, 1, Duration.ofMillis(10), Duration.ofMillis(10));
+        List<StudentProfile> profiles = profiles(3);
+
+        // The writer holds the first profile in a stalled flush and the second fills the buffer
+        queue.enqueue(profiles.get(0));
+        assertThat(profileStore.writerStalled.await(2, TimeUnit.SECONDS)).isTrue();
+        queue.enqueue(profiles.get(1));
+        queue.enqueue(profiles.get(2));
+
+        assertThat(profileStore.batches()).containsExactly(List.of(profiles.get(2).getId()));
+        assertThat(profileStore.threads).containsExactly(Thread.currentThread().getName());
+        assertThat(meterRegistry.counter("predictions.write_behind.written_inline").count()).isEqualTo(1.0);
+
+        profileStore.release.countDown();
+        profileStore.await(3, Duration.ofSeconds(2));
+    }
+
+    @Test
+    void waitsBehindAnOlderBufferedVersionInsteadOfWritingInline() throws Exception {
+        profileStore.blockWriter = true;
+        queue = start(1, 1, Duration.ofMillis(10), Duration.ofMillis(10));
+        List<StudentProfile> profiles = profiles(2);
+        StudentProfile older = profiles.get(0);
+        older.setModelVersion("older");
+        StudentProfile newer = new StudentProfile();
+        newer.setId(older.getId());
+        newer.setModelVersion("newer");
+
+        // The writer holds the older version in a stalled flush and another profile fills the buffer
+        queue.enqueue(older);
+        assertThat(profileStore.writerStalled.await(2, TimeUnit.SECONDS)).isTrue();
+        queue.enqueue(profiles.get(1));
+        Thread caller = new Thread(() -> {
+            try {
+                queue.enqueue(newer);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        caller.start();
+        caller.join(200);
+        assertThat(caller.isAlive()).isTrue();
+        assertThat(profileStore.batches()).isEmpty();
+
+        profileStore.release.countDown();
+        caller.join(2000);
+        profileStore.await(3, Duration.ofSeconds(2));
+        assertThat(profileStore.batches()).containsExactly(List.of(older.getId()), List.of(profiles.get(1).getId()),
+                List.of(older.getId()));
+        assertThat(profileStore.versions).containsEntry(older.getId(), "newer");
+        assertThat(meterRegistry.counter("predictions.write_behind.written_inline").count()).isZero();
+    }
+
+    @Test
+    void drainsBufferedProfilesOnShutdownAndWritesLaterOnesInline() throws Exception {
+        queue = start(100, 100, Duration.ofMillis(300), Duration.ofMillis(50));
+        List<StudentProfile> profiles = profiles(10);
+        for (StudentProfile profile : profiles) {
+            queue.enqueue(profile);
+        }
+
+        queue.stop();
+        assertThat(profileStore.batches().stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(ids(profiles));
+
+        StudentProfile late = profiles(1).get(0);
+        queue.enqueue(late);
+        assertThat(profileStore.batches()).last().isEqualTo(List.of(late.getId()));
+        assertThat(meterRegistry.counter("predictions.write_behind.written_inline").count()).isEqualTo(1.0);
+    }
+
+    private WriteBehindQueue start(int capacity, int flushSize, Duration flushInterval, Duration offerTimeout) {
+        WriteBehindQueue started = new WriteBehindQueue(profileStore, meterRegistry, capacity, flushSize, flushInterval,
+                offerTimeout, Duration.ofSeconds(5));
+        started.start();
+        return started;
+    }
+
+    private static List<StudentProfile> profiles(int count) {
+        List<StudentProfile> profiles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StudentProfile profile = new StudentProfile();
+            profile.setId(UUID.randomUUID());
+            profiles.add(profile);
+        }
+        return profiles;
+    }
+
+    private static List<UUID> ids(List<StudentProfile> profiles) {
+        return profiles.stream().map(StudentProfile::getId).toList();
+    }
+
+    private static final class RecordingProfileStore implements ProfileStore {
+        private final List<List<UUID>> batches = new ArrayList<>();
+        private final List<String> threads = new ArrayList<>();
+        private final Map<UUID, String> versions = new ConcurrentHashMap<>();
+        private final CountDownLatch writerStalled = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean blockWriter;
+        private int saved;
+
+        @Override
+        public void save(StudentProfile studentProfile) {
+            saveAll(List.of(studentProfile));
+        }
+
+        @Override
+        public void saveAll(List<StudentProfile> studentProfiles) {
+            boolean writer = Thread.currentThread().getName().equals(WRITER);
+            if (writer && blockWriter) {
+                writerStalled.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            synchronized (this) {
+                batches.add(ids(studentProfiles));
+                studentProfiles.stream().filter(profile -> profile.getModelVersion() != null)
+                        .forEach(profile -> versions.put(profile.getId(), profile.getModelVersion()));
+                if (!writer) {
+                    threads.add(Thread.currentThread().getName());
+                }
+                saved += studentProfiles.size();
+                notifyAll();
+            }
+        }
+
+        @Override
+        public Optional<StudentProfile> findById(UUID id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<StudentProfile> findUpdatedAfter(LocalDateTime updatedAt, UUID id, LocalDateTime before, int limit) {
+            return List.of();
+        }
+
+        synchronized List<List<UUID>> batches() {
+            return List.copyOf(batches);
+        }
+
+        synchronized void await(int profiles, Duration timeout) throws InterruptedException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (saved < profiles) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                assertThat(remaining).as("%d of %d profiles saved", saved, profiles).isPositive();
+                wait(remaining);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.nextstep.recommendations.src;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * High-volume synthetic profile generation across all cores.
+ * <p>
+ * Work is cut into chunks of {@code batchSize} profiles and every chunk draws from its own generator split off a
+ * seeded {@link SplittableRandom} in chunk order, so a seed and batch size reproduce the same profiles whatever the
+ * worker count. Run it with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.nextstep.recommendations.src.BulkProfileGenerator};
+ * settings are system properties: {@code generator.count}, {@code generator.seed}, {@code generator.workers},
+ * {@code generator.batch-size}, {@code generator.output} ({@code copy}, {@code batch}, {@code csv} or {@code arff}),
+ * {@code generator.file} and {@code generator.jdbc-url}, {@code generator.username}, {@code generator.password}.
+ */
+public class BulkProfileGenerator {
+
+    private final int workers;
+    private final int batchSize;
+
+    public BulkProfileGenerator(int workers, int batchSize) {
+        this.workers = workers;
+        this.batchSize = batchSize;
+    }
+
+    public Result generate(long count, long seed, ProfileSink sink) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        SplittableRandom root = new SplittableRandom(seed);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Void>> chunks = new ArrayList<>();
+            for (long first = 0; first < count; first += batchSize) {
+                long firstIndex = first;
+                int size = (int) Math.min(batchSize, count - first);
+                SplittableRandom random = root.split();
+                chunks.add(executor.submit(() -> {
+                    StudentProfileGenerator generator = new StudentProfileGenerator(null, random);
+                    List<StudentProfile> profiles = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        profiles.add(generator.generateStudentProfile());
+                    }
+                    sink.write(firstIndex, profiles);
+                    return null;
+                }));
+            }
+            for (Future<Void> chunk : chunks) {
+                chunk.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IllegalStateException("Profile generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Result(count, System.nanoTime() - start);
+    }
+
+    public record Result(long profiles, long elapsedNanos) {
+        public double profilesPerSecond() {
+            return profiles / (elapsedNanos / 1e9);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        long count = Long.getLong("generator.count", 1_000_000L);
+        long seed = Long.getLong("generator.seed", 42L);
+        int workers = Integer.getInteger("generator.workers", Runtime.getRuntime().availableProcessors());
+        int batchSize = Integer.getInteger("generator.batch-size", 1000);
+        String output = System.getProperty("generator.output", "copy").toLowerCase(Locale.ROOT);
+
+        HikariDataSource dataSource = null;
+        ProfileSink sink;
+        switch (output) {
+            case "csv", "arff" -> sink = new FileProfileSink(
+                    Path.of(System.getProperty("generator.file", "generated_student_profiles." + output)),
+                    FileProfileSink.Format.valueOf(output.toUpperCase(Locale.ROOT)));
+            case "copy", "batch" -> {
+                dataSource = new HikariDataSource();
+                dataSource.setJdbcUrl(System.getProperty("generator.jdbc-url",
+                        "jdbc:postgresql://localhost:6543/next-step-recommendations-db?reWriteBatchedInserts=true"));
+                dataSource.setUsername(System.getProperty("generator.username", "next-step"));
+                dataSource.setPassword(System.getProperty("generator.password", "secret"));
+                dataSource.setMaximumPoolSize(workers);
+                JdbcProfileSink jdbcSink = new JdbcProfileSink(dataSource,
+                        JdbcProfileSink.Mode.valueOf(output.toUpperCase(Locale.ROOT)));
+                jdbcSink.createTablesIfMissing();
+                sink = jdbcSink;
+            }
+            default -> throw new IllegalArgumentException("Unknown generator.output: " + output);
+        }
+
+        try (sink) {
+            Result result = new BulkProfileGenerator(workers, batchSize).generate(count, seed, sink);
+            System.out.printf(Locale.ROOT, "generated %d profiles to %s in %.1f s: %.0f profiles/s (%d workers)%n",
+                    result.profiles(), output, result.elapsedNanos() / 1e9, result.profilesPerSecond(), workers);
+        } finally {
+            if (dataSource != null) {
+                dataSource.close();
+            }
+        }
+    }
+}
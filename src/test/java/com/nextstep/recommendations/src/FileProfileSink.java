@@ -0,0 +1,110 @@
+package com.nextstep.recommendations.src;
+
+import com.nextstep.recommendations.utils.Config;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Streams generated profiles to one ARFF or CSV file with a fixed column layout, the career label being the most
+// probable career. Rows of different workers interleave; profile_id is the global index, so sorting restores order.
+public class FileProfileSink implements ProfileSink {
+
+    public enum Format { CSV, ARFF }
+
+    private static final List<String> OL_SUBJECTS = namesById(Config.OL_SUBJECTS);
+    private static final List<String> AL_SUBJECTS = namesById(Config.AL_SUBJECTS);
+    private static final List<String> CAREERS = namesById(Config.CAREERS);
+
+    private final Format format;
+    private final Writer writer;
+
+    public FileProfileSink(Path file, Format format) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16);
+        writer.write(header());
+    }
+
+    @Override
+    public void write(long firstIndex, List<StudentProfile> profiles) throws IOException {
+        // Rows are formatted outside the lock; only the append to the shared file is serialized
+        StringBuilder rows = new StringBuilder(profiles.size() * 96);
+        for (int i = 0; i < profiles.size(); i++) {
+            appendRow(rows, firstIndex + i, profiles.get(i));
+        }
+        synchronized (writer) {
+            writer.append(rows);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            writer.close();
+        }
+    }
+
+    private String header() {
+        if (format == Format.CSV) {
+            StringBuilder header = new StringBuilder("profile_id,education_level");
+            OL_SUBJECTS.forEach(subject -> header.append(",OL_subject_").append(Config.OL_SUBJECTS.get(subject)).append("_score"));
+            header.append(",AL_stream");
+            AL_SUBJECTS.forEach(subject -> header.append(",AL_subject_").append(Config.AL_SUBJECTS.get(subject)).append("_score"));
+            return header.append(",z_score,gpa,career\n").toString();
+        }
+
+        StringBuilder header = new StringBuilder("@relation generated_student_profiles\n\n");
+        header.append("@attribute profile_id numeric\n@attribute education_level numeric\n");
+        OL_SUBJECTS.forEach(subject -> header.append("@attribute OL_subject_").append(Config.OL_SUBJECTS.get(subject))
+                .append("_score numeric\n"));
+        header.append("@attribute AL_stream numeric\n");
+        AL_SUBJECTS.forEach(subject -> header.append("@attribute AL_subject_").append(Config.AL_SUBJECTS.get(subject))
+                .append("_score numeric\n"));
+        header.append("@attribute z_score numeric\n@attribute gpa numeric\n");
+        header.append("@attribute career {").append(String.join(",", CAREERS)).append("}\n\n@data\n");
+        return header.toString();
+    }
+
+    private void appendRow(StringBuilder row, long profileId, StudentProfile profile) {
+        row.append(profileId).append(',').append(profile.getEducationLevel());
+        for (String subject : OL_SUBJECTS) {
+            appendValue(row, profile.getOlResults() != null ? profile.getOlResults().get(subject) : null);
+        }
+        appendValue(row, profile.getAlStream());
+        for (String subject : AL_SUBJECTS) {
+            appendValue(row, profile.getAlResults() != null ? profile.getAlResults().get(subject) : null);
+        }
+        appendValue(row, profile.getZScore());
+        appendValue(row, profile.getGpa());
+        row.append(',').append(mostProbableCareer(profile.getCareerProbabilities())).append('\n');
+    }
+
+    private void appendValue(StringBuilder row, Number value) {
+        row.append(',');
+        if (value != null) {
+            row.append(value);
+        } else if (format == Format.ARFF) {
+            row.append('?');
+        }
+    }
+
+    private static String mostProbableCareer(Map<String, Double> probabilities) {
+        return probabilities.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElseThrow();
+    }
+
+    private static List<String> namesById(Map<String, Integer> ids) {
+        return ids.keySet().stream()
+                .sorted(Comparator.comparing(ids::get))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,177 @@
+package com.nextstep.recommendations.src;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Writes generated profiles into the generated_* tables, one transaction per chunk
+public class JdbcProfileSink implements ProfileSink {
+
+    public enum Mode { BATCH, COPY }
+
+    // Identity values are reserved up front so child rows can reference their profile without RETURNING
+    private static final String RESERVE_IDS =
+            "SELECT nextval(pg_get_serial_sequence('generated_student_profiles', 'id')) FROM generate_series(1, ?)";
+    private static final String INSERT_PROFILE = """
+            INSERT INTO generated_student_profiles (id, education_level, al_stream, z_score, gpa, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Same layout Hibernate derives from the StudentProfileTest entity, for runs outside a Spring context
+    private static final String[] CREATE_TABLES = {
+            """
+            CREATE TABLE IF NOT EXISTS generated_student_profiles (
+                id integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                education_level integer NOT NULL,
+                al_stream integer,
+                z_score float8,
+                gpa float8,
+                created_at timestamp(6) NOT NULL,
+                updated_at timestamp(6)
+            )
+            """,
+            "CREATE TABLE IF NOT EXISTS generated_ol_results (profile_id integer NOT NULL REFERENCES generated_student_profiles, "
+                    + "subject varchar(255) NOT NULL, grade float8, PRIMARY KEY (profile_id, subject))",
+            "CREATE TABLE IF NOT EXISTS generated_al_results (profile_id integer NOT NULL REFERENCES generated_student_profiles, "
+                    + "subject varchar(255) NOT NULL, grade float8, PRIMARY KEY (profile_id, subject))",
+            "CREATE TABLE IF NOT EXISTS generated_career_probabilities (profile_id integer NOT NULL REFERENCES generated_student_profiles, "
+                    + "career varchar(255) NOT NULL, probability float8, PRIMARY KEY (profile_id, career))"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Mode mode;
+
+    public JdbcProfileSink(DataSource dataSource, Mode mode) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.mode = mode;
+    }
+
+    public void createTablesIfMissing() {
+        jdbcTemplate.batchUpdate(CREATE_TABLES);
+    }
+
+    @Override
+    public void write(long firstIndex, List<StudentProfile> profiles) {
+        transactionTemplate.executeWithoutResult(status -> {
+            long[] ids = jdbcTemplate.queryForList(RESERVE_IDS, Long.class, profiles.size()).stream()
+                    .mapToLong(Long::longValue)
+                    .toArray();
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            if (mode == Mode.COPY) {
+                copy(ids, profiles, now);
+            } else {
+                insert(ids, profiles, now);
+            }
+        });
+    }
+
+    private void insert(long[] ids, List<StudentProfile> profiles, Timestamp now) {
+        List<Object[]> rows = new ArrayList<>(profiles.size());
+        for (int i = 0; i < profiles.size(); i++) {
+            StudentProfile profile = profiles.get(i);
+            rows.add(new Object[]{ids[i], profile.getEducationLevel(), profile.getAlStream(), profile.getZScore(),
+                    profile.getGpa(), now, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_PROFILE, rows, new int[]{Types.BIGINT, Types.INTEGER, Types.INTEGER,
+                Types.DOUBLE, Types.DOUBLE, Types.TIMESTAMP, Types.TIMESTAMP});
+
+        insertEntries("generated_ol_results", "subject", "grade", ids, profiles, StudentProfile::getOlResults);
+        insertEntries("generated_al_results", "subject", "grade", ids, profiles, StudentProfile::getAlResults);
+        insertEntries("generated_career_probabilities", "career", "probability", ids, profiles,
+                StudentProfile::getCareerProbabilities);
+    }
+
+    private void insertEntries(String table, String keyColumn, String valueColumn, long[] ids,
+                               List<StudentProfile> profiles, Function<StudentProfile, Map<String, Double>> getter) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < profiles.size(); i++) {
+            Map<String, Double> entries = getter.apply(profiles.get(i));
+            if (entries == null) {
+                continue;
+            }
+            for (Map.Entry<String, Double> entry : entries.entrySet()) {
+                rows.add(new Object[]{ids[i], entry.getKey(), entry.getValue()});
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (profile_id, " + keyColumn + ", " + valueColumn
+                    + ") VALUES (?, ?, ?)", rows);
+        }
+    }
+
+    private void copy(long[] ids, List<StudentProfile> profiles, Timestamp now) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            StringBuilder csv = new StringBuilder();
+            try (CSVPrinter printer = new CSVPrinter(csv, CSVFormat.POSTGRESQL_CSV)) {
+                for (int i = 0; i < profiles.size(); i++) {
+                    StudentProfile profile = profiles.get(i);
+                    printer.printRecord(ids[i], profile.getEducationLevel(), profile.getAlStream(),
+                            profile.getZScore(), profile.getGpa(), now, now);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            copyIn(copyManager, "generated_student_profiles (id, education_level, al_stream, z_score, gpa, "
+                    + "created_at, updated_at)", csv);
+
+            copyEntries(copyManager, "generated_ol_results (profile_id, subject, grade)", ids, profiles,
+                    StudentProfile::getOlResults);
+            copyEntries(copyManager, "generated_al_results (profile_id, subject, grade)", ids, profiles,
+                    StudentProfile::getAlResults);
+            copyEntries(copyManager, "generated_career_probabilities (profile_id, career, probability)", ids,
+                    profiles, StudentProfile::getCareerProbabilities);
+            return null;
+        });
+    }
+
+    private static void copyEntries(CopyManager copyManager, String target, long[] ids, List<StudentProfile> profiles,
+                                    Function<StudentProfile, Map<String, Double>> getter) throws SQLException {
+        StringBuilder csv = new StringBuilder();
+        try (CSVPrinter printer = new CSVPrinter(csv, CSVFormat.POSTGRESQL_CSV)) {
+            for (int i = 0; i < profiles.size(); i++) {
+                Map<String, Double> entries = getter.apply(profiles.get(i));
+                if (entries == null) {
+                    continue;
+                }
+                for (Map.Entry<String, Double> entry : entries.entrySet()) {
+                    printer.printRecord(ids[i], entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!csv.isEmpty()) {
+            copyIn(copyManager, target, csv);
+        }
+    }
+
+    private static void copyIn(CopyManager copyManager, String target, CharSequence csv) throws SQLException {
+        try {
+            copyManager.copyIn("COPY " + target + " FROM STDIN WITH (FORMAT csv)", new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
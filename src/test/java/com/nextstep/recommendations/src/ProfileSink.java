@@ -0,0 +1,16 @@
+package com.nextstep.recommendations.src;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+// Destination for bulk generated profiles; write is called concurrently by generation workers
+public interface ProfileSink extends Closeable {
+
+    // firstIndex is the global index of the first profile, so file rows get stable ids across runs
+    void write(long firstIndex, List<StudentProfile> profiles) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -91,6 +91,34 @@ public class StudentProfile {
         return this.id;
     }
 
+    public int getEducationLevel() {
+        return educationLevel;
+    }
+
+    public Map<String, Double> getOlResults() {
+        return olResults;
+    }
+
+    public Integer getAlStream() {
+        return alStream;
+    }
+
+    public Map<String, Double> getAlResults() {
+        return alResults;
+    }
+
+    public Double getZScore() {
+        return zScore;
+    }
+
+    public Double getGpa() {
+        return gpa;
+    }
+
+    public Map<String, Double> getCareerProbabilities() {
+        return careerProbabilities;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = java.time.LocalDateTime.now();
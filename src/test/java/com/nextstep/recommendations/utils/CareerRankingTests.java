@@ -0,0 +1,55 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.dto.RankedCareerDTO;
+import com.nextstep.recommendations.dto.StudentProfileDTO;
+import com.nextstep.recommendations.mapper.StudentProfileMapper;
+import com.nextstep.recommendations.model.StudentProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CareerRankingTests {
+
+    @TempDir
+    Path modelDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void ranksTheTopKByDescendingProbabilityWithTiesToTheLowerIndex() {
+        double[] probabilities = {0.1, 0.3, 0.2, 0.3, 0.1};
+        int[] order = new int[probabilities.length];
+
+        int ranked = CareerRanking.rank(probabilities, order, 3);
+
+        assertThat(ranked).isEqualTo(3);
+        assertThat(Arrays.copyOf(order, ranked)).containsExactly(1, 3, 2);
+        assertThat(CareerRanking.top(new String[]{"a", "b", "c", "d", "e"}, probabilities, 2))
+                .containsExactly(Map.entry("b", 0.3), Map.entry("d", 0.3));
+        assertThat(probabilities).containsExactly(0.1, 0.3, 0.2, 0.3, 0.1);
+    }
+
+    @Test
+    void topKModeKeepsOnlyTheMostProbableCareersInRankOrder() throws Exception {
+        StudentProfile profile = TestModels.randomProfiles(1, 7L).get(0);
+        double[] probabilities = new HeuristicScorer().score(profile);
+        Predictor predictor = TestModels.predictor(modelDir, meterRegistry).topK(2).build();
+
+        StudentProfile scored = predictor.updateCareerProbabilities(profile);
+        StudentProfileDTO response = StudentProfileMapper.INSTANCE.toDTO(scored, 2);
+
+        double[] sorted = probabilities.clone();
+        Arrays.sort(sorted);
+        assertThat(scored.getCareerProbabilities().values()).containsExactly(sorted[sorted.length - 1], sorted[sorted.length - 2]);
+        assertThat(response.getCareerProbabilities()).isNull();
+        assertThat(response.getTopCareers()).extracting(RankedCareerDTO::getRank).containsExactly(1, 2);
+        assertThat(response.getTopCareers()).extracting(RankedCareerDTO::getProbability)
+                .containsExactly(sorted[sorted.length - 1], sorted[sorted.length - 2]);
+    }
+}
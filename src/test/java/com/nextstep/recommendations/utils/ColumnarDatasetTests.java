@@ -0,0 +1,81 @@
+package com.nextstep.recommendations.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import weka.classifiers.trees.J48;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.converters.ConverterUtils.DataSource;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ColumnarDatasetTests {
+
+    @TempDir
+    Path dir;
+
+    private Instances arff;
+    private ColumnarDataset columnar;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        arff = DataSource.read("models/student_profiles.arff");
+        arff.setClassIndex(arff.numAttributes() - 1);
+        ColumnarDataset.fromArff(Path.of("models/student_profiles.arff"), dir.resolve("student_profiles.col"));
+        columnar = ColumnarDataset.open(dir.resolve("student_profiles.col"));
+    }
+
+    @Test
+    void roundTripsThroughArff() throws Exception {
+        columnar.toArff(dir.resolve("student_profiles.arff"));
+        Instances roundTripped = DataSource.read(dir.resolve("student_profiles.arff").toString());
+        roundTripped.setClassIndex(roundTripped.numAttributes() - 1);
+
+        assertThat(roundTripped.equalHeaders(arff)).isTrue();
+        assertThat(roundTripped.numInstances()).isEqualTo(arff.numInstances());
+        for (int i = 0; i < arff.numInstances(); i++) {
+            assertThat(roundTripped.instance(i).toDoubleArray()).containsExactly(arff.instance(i).toDoubleArray());
+        }
+    }
+
+    @Test
+    void storesTheStandardizationParametersWekaComputes() {
+        for (int i = 0; i < arff.numAttributes(); i++) {
+            if (i == arff.classIndex()) {
+                assertThat(columnar.mean(i)).isNaN();
+                continue;
+            }
+            assertThat(columnar.mean(i)).isCloseTo(arff.meanOrMode(i), within(1e-9));
+            assertThat(columnar.stdDev(i)).isCloseTo(Math.sqrt(arff.variance(i)), within(1e-9));
+        }
+    }
+
+    @Test
+    void mappedInstancesTrainTheSameModel() throws Exception {
+        Instances mapped = columnar.toInstances();
+        J48 fromArff = new J48();
+        fromArff.buildClassifier(arff);
+        J48 fromColumns = new J48();
+        fromColumns.buildClassifier(mapped);
+
+        assertThat(fromColumns.toString()).isEqualTo(fromArff.toString());
+    }
+
+    @Test
+    void modifyingARowLeavesTheMappingIntact() {
+        Instances mapped = columnar.toInstances();
+        Instance row = mapped.instance(0);
+        double original = row.value(1);
+
+        Instance copy = (Instance) row.copy();
+        copy.setValue(1, original + 1);
+
+        assertThat(copy.value(1)).isEqualTo(original + 1);
+        assertThat(row.value(1)).isEqualTo(original);
+        assertThat(columnar.value(0, 1)).isEqualTo(original);
+    }
+}
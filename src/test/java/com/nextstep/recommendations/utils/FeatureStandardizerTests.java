@@ -0,0 +1,62 @@
+package com.nextstep.recommendations.utils;
+
+import org.junit.jupiter.api.Test;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.Utils;
+import weka.core.converters.ConverterUtils.DataSource;
+import weka.filters.Filter;
+import weka.filters.unsupervised.attribute.Standardize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FeatureStandardizerTests {
+
+    @Test
+    void matchesTheWekaFilterOnTheTrainingData() throws Exception {
+        Instances data = DataSource.read("models/student_profiles.arff");
+        data.setClassIndex(data.numAttributes() - 1);
+
+        assertMatchesStandardize(data);
+    }
+
+    @Test
+    void centresConstantFeaturesAndKeepsMissingValues() throws Exception {
+        ArrayList<Attribute> attributes = new ArrayList<>(List.of(new Attribute("grade"), new Attribute("constant"),
+                new Attribute("career", List.of("IT", "Teaching"))));
+        Instances data = new Instances("edge_cases", attributes, 4);
+        data.setClassIndex(2);
+        data.add(new DenseInstance(1.0, new double[]{70, 5, 0}));
+        data.add(new DenseInstance(2.0, new double[]{Utils.missingValue(), 5, 1}));
+        data.add(new DenseInstance(1.0, new double[]{40, 5, 1}));
+        data.add(new DenseInstance(1.0, new double[]{55, 5, 0}));
+
+        assertMatchesStandardize(data);
+        assertThat(FeatureStandardizer.fit(data).apply(data).instance(1).isMissing(0)).isTrue();
+    }
+
+    private static void assertMatchesStandardize(Instances data) throws Exception {
+        Standardize filter = new Standardize();
+        filter.setInputFormat(data);
+        Instances expected = Filter.useFilter(data, filter);
+
+        FeatureStandardizer standardizer = FeatureStandardizer.fit(data);
+        for (int i = 0; i < data.numInstances(); i++) {
+            double[] values = data.instance(i).toDoubleArray();
+            standardizer.apply(values);
+            double[] filtered = expected.instance(i).toDoubleArray();
+            for (int j = 0; j < values.length; j++) {
+                if (Double.isNaN(filtered[j])) {
+                    assertThat(values[j]).isNaN();
+                } else {
+                    assertThat(values[j]).isCloseTo(filtered[j], within(1e-9));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.nextstep.recommendations.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTests {
+    private static final int DIMENSIONS = ProfileVectors.DIMENSIONS;
+    private static final int POINTS = 5000;
+    private static final int QUERIES = 100;
+    private static final int K = 10;
+
+    @Test
+    void findsMostOfTheExactNearestNeighbours() {
+        Random random = new Random(7);
+        float[][] points = randomPoints(random, POINTS);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, true, 1L);
+        for (float[] point : points) {
+            index.add(point);
+        }
+
+        int[] nodes = new int[K];
+        float[] distances = new float[K];
+        int hits = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            float[] query = randomPoints(random, 1)[0];
+            int found = index.search(query, K, 64, nodes, distances);
+            assertThat(found).isEqualTo(K);
+            int[] exact = IntStream.range(0, POINTS).boxed()
+                    .sorted(Comparator.comparingDouble(i -> squaredDistance(query, points[i])))
+                    .limit(K).mapToInt(Integer::intValue).toArray();
+            for (int i = 0; i < K; i++) {
+                int node = nodes[i];
+                hits += IntStream.of(exact).anyMatch(e -> e == node) ? 1 : 0;
+            }
+            for (int i = 1; i < K; i++) {
+                assertThat(distances[i]).isGreaterThanOrEqualTo(distances[i - 1]);
+            }
+        }
+        assertThat(hits / (double) (QUERIES * K)).isGreaterThan(0.9);
+    }
+
+    @Test
+    void neverReturnsRemovedNodes() {
+        float[][] points = randomPoints(new Random(11), 500);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50, false, 1L);
+        for (float[] point : points) {
+            index.add(point);
+        }
+        for (int node = 0; node < points.length; node += 2) {
+            index.remove(node);
+        }
+
+        int[] nodes = new int[K];
+        int found = index.search(points[0], K, 50, nodes, new float[K]);
+        assertThat(index.size()).isEqualTo(250);
+        assertThat(found).isEqualTo(K);
+        assertThat(Arrays.stream(nodes)).allMatch(node -> node % 2 == 1);
+    }
+
+    private static float[][] randomPoints(Random random, int count) {
+        float[][] points = new float[count][DIMENSIONS];
+        for (float[] point : points) {
+            for (int i = 0; i < DIMENSIONS; i++) {
+                point[i] = random.nextFloat();
+            }
+        }
+        return points;
+    }
+
+    private static double squaredDistance(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += (a[i] - b[i]) * (a[i] - b[i]);
+        }
+        return sum;
+    }
+}
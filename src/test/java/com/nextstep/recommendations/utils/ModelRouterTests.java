@@ -0,0 +1,72 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelRouterTests {
+
+    @TempDir
+    Path modelDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ModelRouter router;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TestModels.createModelDir(modelDir);
+        TestModels.createRoutedModel(modelDir.resolve("ol_v1.model"), "education_level", "OL_");
+        TestModels.createRoutedModel(modelDir.resolve("ol_v2.model"), "education_level", "OL_");
+        Files.createDirectories(modelDir.resolve(ModelRouter.STREAM_DIR));
+        TestModels.createRoutedModel(modelDir.resolve(ModelRouter.STREAM_DIR).resolve("stream_6_v1.model"),
+                "education_level", "OL_", "AL_");
+        router = new ModelRouter(modelDir + "/", 4, 1, Optional.empty(), new PredictionMetrics(meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void routesToLatestVersionWithReducedFeatures() {
+        LoadedModel ol = router.route(profile(0, null));
+        LoadedModel stream = router.route(profile(1, 6));
+
+        assertThat(ol.versionLabel()).startsWith("ol_v2-");
+        assertThat(ol.header().numAttributes()).isEqualTo(8);
+        assertThat(stream.versionLabel()).startsWith("stream_6_v1-");
+        assertThat(router.route(profile(0, null))).isSameAs(ol);
+    }
+
+    @Test
+    void unroutedProfilesUseTheDefaultModel() throws Exception {
+        assertThat(router.route(profile(1, 7))).isNull();
+        assertThat(router.route(profile(2, 6))).isNull();
+
+        Predictor predictor = TestModels.predictor(modelDir, meterRegistry).modelRouter(router).fallbackEnabled(false).build();
+        List<StudentProfile> scored = predictor.updateCareerProbabilities(
+                List.of(profile(0, null), profile(1, 6), profile(1, 7)));
+
+        assertThat(scored.get(0).getModelVersion()).startsWith("ol_v2-");
+        assertThat(scored.get(1).getModelVersion()).startsWith("stream_6_v1-");
+        assertThat(scored.get(2).getModelVersion()).isEqualTo(predictor.getModelVersion());
+        assertThat(predictor.updateCareerProbabilities(profile(0, null)).getModelVersion()).startsWith("ol_v2-");
+    }
+
+    private static StudentProfile profile(int educationLevel, Integer alStream) {
+        StudentProfile profile = new StudentProfile();
+        profile.setEducationLevel(educationLevel);
+        profile.setOlResults(Map.of("0", 1.0, "1", 2.0));
+        profile.setAlStream(alStream);
+        if (alStream != null) {
+            profile.setAlResults(Map.of("6", 1.0));
+        }
+        return profile;
+    }
+}
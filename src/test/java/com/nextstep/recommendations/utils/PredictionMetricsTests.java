@@ -0,0 +1,125 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import weka.classifiers.bayes.NaiveBayesUpdateable;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.Utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PredictionMetricsTests {
+
+    @TempDir
+    Path modelDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PredictionMetrics predictionMetrics = new PredictionMetrics(meterRegistry);
+
+    @Test
+    void recordsStageTimingsAndUnknownSubjectsPerLevelAndModel() throws Exception {
+        TestModels.createModelDir(modelDir);
+        Predictor predictor = predictor(Optional.empty());
+        StudentProfile profile = TestModels.randomProfiles(1, 7L).get(0);
+        profile.setOlResults(new HashMap<>(profile.getOlResults()));
+        profile.getOlResults().put("not_a_subject", 1.0);
+
+        predictor.updateCareerProbabilities(profile, Scorer.MODEL);
+
+        String level = String.valueOf(profile.getEducationLevel());
+        String model = predictor.getModelVersion();
+        for (String stage : new String[]{"encoding", "classification"}) {
+            assertThat(meterRegistry.get("prediction.stage").tags("stage", stage, "educationLevel", level, "model", model)
+                    .timer().count()).isEqualTo(1);
+        }
+        assertThat(meterRegistry.get("prediction.unknown_subjects").tags("educationLevel", level, "model", model)
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void tagsEducationLevelsOutsideTheConfiguredOnesAsOther() {
+        for (String educationLevel : new String[]{"7", "-1", "abc", "1"}) {
+            predictionMetrics.record(PredictionMetrics.Stage.BINDING, educationLevel, PredictionMetrics.NONE, 1);
+        }
+        predictionMetrics.record(PredictionMetrics.Stage.MAPPING, 42, PredictionMetrics.NONE, 1);
+        predictionMetrics.record(PredictionMetrics.Stage.MAPPING, PredictionMetrics.ALL, PredictionMetrics.NONE, 1);
+
+        assertThat(meterRegistry.find("prediction.stage").timers())
+                .extracting(timer -> timer.getId().getTag("educationLevel"))
+                .containsExactlyInAnyOrder("other", "1", "other", "all");
+        assertThat(meterRegistry.get("prediction.stage").tags("stage", "binding", "educationLevel", "other")
+                .timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void retiresTheMetersOfAReplacedOnlineModel() throws Exception {
+        Predictor predictor = predictor(Optional.empty());
+        List<StudentProfile> profiles = TestModels.randomProfiles(20, 7L);
+        TrainingTarget target = TrainingTarget.parse(TrainingTarget.CAREER_PREDICTION);
+        NaiveBayesUpdateable shadow = new NaiveBayesUpdateable();
+        shadow.buildClassifier(new Instances(target.header(), 0));
+
+        String first = predictor.publish(learn(shadow, target, profiles.subList(0, 10)), target.header(), "online").join();
+        predictor.updateCareerProbabilities(profiles.get(0), Scorer.MODEL);
+        assertThat(meterRegistry.find("prediction.stage").tag("model", first).timers()).isNotEmpty();
+
+        String second = predictor.publish(learn(shadow, target, profiles.subList(10, 20)), target.header(), "online").join();
+        predictor.updateCareerProbabilities(profiles.get(0), Scorer.MODEL);
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(meterRegistry.find("prediction.stage").tag("model", first).timers()).isEmpty();
+        assertThat(meterRegistry.find("prediction.stage").tag("model", second).timers()).isNotEmpty();
+    }
+
+    @Test
+    void retiresTheMetersOfARoutedModelDroppedFromItsSlot() throws Exception {
+        TestModels.createModelDir(modelDir);
+        TestModels.createRoutedModel(modelDir.resolve("ol_v1.model"), "education_level", "OL_");
+        ModelRouter router = new ModelRouter(modelDir + "/", 4, 1, Optional.empty(), predictionMetrics, meterRegistry);
+        Predictor predictor = predictor(Optional.of(router));
+        StudentProfile profile = TestModels.randomProfiles(1, 7L).get(0);
+        profile.setEducationLevel(Config.EDUCATION_LEVELS.get("OL"));
+
+        String routed = predictor.updateCareerProbabilities(profile, Scorer.MODEL).getModelVersion();
+        assertThat(routed).startsWith("ol_v1-");
+        assertThat(meterRegistry.find("prediction.stage").tag("model", routed).timers()).isNotEmpty();
+
+        // A newer version takes over the slot on refresh
+        TestModels.createRoutedModel(modelDir.resolve("ol_v2.model"), "education_level", "OL_");
+        router.refresh();
+
+        assertThat(meterRegistry.find("prediction.stage").tag("model", routed).timers()).isEmpty();
+        assertThat(predictor.updateCareerProbabilities(profile, Scorer.MODEL).getModelVersion()).startsWith("ol_v2-");
+    }
+
+    private Predictor predictor(Optional<ModelRouter> router) throws Exception {
+        TestModels.PredictorFixture predictor = TestModels.predictor(modelDir, meterRegistry).predictionMetrics(predictionMetrics);
+        router.ifPresent(predictor::modelRouter);
+        return predictor.build();
+    }
+
+    private static byte[] learn(NaiveBayesUpdateable shadow, TrainingTarget target, List<StudentProfile> profiles)
+            throws Exception {
+        TrainingSetBuilder builder = new TrainingSetBuilder(target);
+        HeuristicScorer heuristicScorer = new HeuristicScorer();
+        for (StudentProfile profile : profiles) {
+            builder.add(profile, Utils.maxIndex(heuristicScorer.score(profile)));
+        }
+        for (Instance instance : builder.build()) {
+            shadow.updateClassifier(instance);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SerializationHelper.write(bytes, shadow);
+        return bytes.toByteArray();
+    }
+}
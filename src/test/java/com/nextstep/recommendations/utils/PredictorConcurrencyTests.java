@@ -0,0 +1,89 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PredictorConcurrencyTests {
+
+    private static final int PROFILES = 20_000;
+
+    @TempDir
+    static Path modelDir;
+
+    private static Predictor predictor;
+    private static List<StudentProfile> profiles;
+    private static List<Map<String, Double>> expected;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        TestModels.createModelDir(modelDir);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        predictor = TestModels.predictor(modelDir, meterRegistry).maxIdleReplicas(0).fallbackEnabled(false).build();
+        profiles = TestModels.randomProfiles(PROFILES, 42L);
+
+        // Single-threaded scoring is the reference every concurrent run must reproduce
+        expected = new ArrayList<>(PROFILES);
+        for (StudentProfile profile : profiles) {
+            expected.add(predictor.updateCareerProbabilities(profile).getCareerProbabilities());
+        }
+    }
+
+    @Test
+    void concurrentScoringMatchesSingleThreadedResults() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        // Throughput across thread counts is measured by PredictorScalingBenchmark; this only checks the results
+        for (int threads = 1; threads <= Math.max(2, cores); threads *= 2) {
+            assertThat(scoreConcurrently(threads)).isEqualTo(expected);
+        }
+    }
+
+    private static List<Map<String, Double>> scoreConcurrently(int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // Each worker scores one contiguous slice, so the results come back in profile order
+            int sliceSize = (PROFILES + threads - 1) / threads;
+            List<Future<List<Map<String, Double>>>> futures = new ArrayList<>(threads);
+            for (int from = 0; from < PROFILES; from += sliceSize) {
+                List<StudentProfile> slice = profiles.subList(from, Math.min(PROFILES, from + sliceSize));
+                futures.add(executor.submit(() -> {
+                    List<Map<String, Double>> results = new ArrayList<>(slice.size());
+                    for (StudentProfile profile : slice) {
+                        results.add(predictor.updateCareerProbabilities(copyOf(profile)).getCareerProbabilities());
+                    }
+                    return results;
+                }));
+            }
+
+            List<Map<String, Double>> results = new ArrayList<>(PROFILES);
+            for (Future<List<Map<String, Double>>> future : futures) {
+                results.addAll(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static StudentProfile copyOf(StudentProfile profile) {
+        StudentProfile copy = new StudentProfile();
+        copy.setEducationLevel(profile.getEducationLevel());
+        copy.setOlResults(profile.getOlResults());
+        copy.setAlStream(profile.getAlStream());
+        copy.setAlResults(profile.getAlResults());
+        copy.setGpa(profile.getGpa());
+        return copy;
+    }
+}
@@ -0,0 +1,80 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class PredictorFallbackTests {
+
+    @TempDir
+    Path modelDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void startsWithoutModelAndServesHeuristicPredictions() throws Exception {
+        Predictor predictor = predictor(true);
+
+        StudentProfile profile = predictor.updateCareerProbabilities(TestModels.randomProfiles(1, 7L).get(0));
+
+        assertThat(predictor.getModelVersion()).isEqualTo(HeuristicScorer.VERSION);
+        assertThat(profile.getModelVersion()).isEqualTo(HeuristicScorer.VERSION);
+        assertThat(profile.getCareerProbabilities()).containsOnlyKeys(Config.CAREERS.keySet());
+        assertThat(profile.getCareerProbabilities().values().stream().mapToDouble(Double::doubleValue).sum())
+                .isCloseTo(1.0, within(1e-9));
+        assertThat(meterRegistry.counter("predictor.fallback", "reason", "no_model").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void modelScorerFailsWithoutModel() throws Exception {
+        Predictor predictor = predictor(true);
+
+        assertThatThrownBy(() -> predictor.updateCareerProbabilities(TestModels.randomProfiles(1, 7L).get(0), Scorer.MODEL))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void startupFailsWithoutModelWhenFallbackDisabled() {
+        assertThatThrownBy(() -> predictor(false)).isInstanceOf(Exception.class);
+    }
+
+    @Test
+    void heuristicScorerCanBeRequestedWhileModelIsLoaded() throws Exception {
+        TestModels.createModelDir(modelDir);
+        Predictor predictor = predictor(true);
+        StudentProfile profile = TestModels.randomProfiles(1, 7L).get(0);
+
+        StudentProfile scored = predictor.updateCareerProbabilities(profile, Scorer.HEURISTIC);
+
+        assertThat(scored.getModelVersion()).isEqualTo(HeuristicScorer.VERSION);
+        assertThat(predictor.getModelVersion()).isNotEqualTo(HeuristicScorer.VERSION);
+    }
+
+    @Test
+    void heuristicFavoursCareersMatchingStrongSubjects() {
+        StudentProfile profile = new StudentProfile();
+        profile.setEducationLevel(Config.EDUCATION_LEVELS.get("AL"));
+        profile.setOlResults(Map.of(String.valueOf(Config.OL_SUBJECTS.get("Maths")), 0.0));
+        profile.setAlStream(Config.AL_STREAMS.get("Physical Science with ICT"));
+        profile.setAlResults(Map.of(
+                String.valueOf(Config.AL_SUBJECTS.get("ICT")), 0.0,
+                String.valueOf(Config.AL_SUBJECTS.get("Combined_Maths")), 0.0,
+                String.valueOf(Config.AL_SUBJECTS.get("Physics")), 4.0));
+
+        double[] probabilities = new HeuristicScorer().score(profile);
+
+        assertThat(probabilities[Config.CAREERS.get("IT")]).isGreaterThan(probabilities[Config.CAREERS.get("Medicine")]);
+    }
+
+    private Predictor predictor(boolean fallbackEnabled) throws Exception {
+        return TestModels.predictor(modelDir, meterRegistry).fallbackEnabled(fallbackEnabled).build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import weka.classifiers.bayes.NaiveBayes;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PredictorReloadTests {
+
+    private static final int PROFILES = 500;
+    private static final int RELOADS = 20;
+
+    @TempDir
+    Path modelDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void reloadingAnotherModelRecomputesCachedPredictions() throws Exception {
+        TestModels.createModelDir(modelDir);
+        Predictor predictor = predictor(modelDir, 1000, meterRegistry);
+        StudentProfile cached = predictor.updateCareerProbabilities(profile());
+        assertThat(predictor.updateCareerProbabilities(profile()).getCareerProbabilities())
+                .isEqualTo(cached.getCareerProbabilities());
+        assertThat(cacheGets("hit")).isEqualTo(1.0);
+
+        TestModels.writeModel(modelDir, new NaiveBayes());
+        predictor.reload().join();
+        assertThat(meterRegistry.get("cache.size").tag("cache", "predictions").gauge().value()).isZero();
+        StudentProfile rescored = predictor.updateCareerProbabilities(profile());
+
+        // A predictor that has never cached anything is the reference for the new model
+        StudentProfile expected = predictor(modelDir, 0, new SimpleMeterRegistry()).updateCareerProbabilities(profile());
+        assertThat(rescored.getModelVersion()).isEqualTo(expected.getModelVersion()).isNotEqualTo(cached.getModelVersion());
+        assertThat(rescored.getCareerProbabilities()).isEqualTo(expected.getCareerProbabilities())
+                .isNotEqualTo(cached.getCareerProbabilities());
+        assertThat(cacheGets("hit")).isEqualTo(1.0);
+        assertThat(cacheGets("miss")).isEqualTo(2.0);
+    }
+
+    @Test
+    void scoringDuringReloadsAlwaysMatchesTheReportedModel() throws Exception {
+        Path treeDir = TestModels.createModelDir(Files.createDirectory(modelDir.resolve("tree")));
+        Path bayesDir = TestModels.createModelDir(Files.createDirectory(modelDir.resolve("bayes")));
+        TestModels.writeModel(bayesDir, new NaiveBayes());
+        List<StudentProfile> profiles = TestModels.randomProfiles(PROFILES, 42L);
+
+        // Each model scored on its own is the reference for results reported under its version
+        Map<String, List<Map<String, Double>>> expected = new HashMap<>();
+        for (Path dir : List.of(treeDir, bayesDir)) {
+            Predictor reference = predictor(dir, 0, new SimpleMeterRegistry());
+            List<Map<String, Double>> probabilities = new ArrayList<>(PROFILES);
+            for (StudentProfile profile : profiles) {
+                probabilities.add(reference.updateCareerProbabilities(copyOf(profile)).getCareerProbabilities());
+            }
+            expected.put(reference.getModelVersion(), probabilities);
+        }
+        assertThat(expected).hasSize(2);
+
+        Path servingDir = TestModels.createModelDir(Files.createDirectory(modelDir.resolve("serving")));
+        Predictor predictor = predictor(servingDir, 1000, meterRegistry);
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        AtomicBoolean reloading = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Map<String, Integer>>> scorers = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                scorers.add(executor.submit(() -> {
+                    Map<String, Integer> scoredByVersion = new HashMap<>();
+                    for (int i = 0; reloading.get(); i = (i + 1) % PROFILES) {
+                        StudentProfile scored = predictor.updateCareerProbabilities(copyOf(profiles.get(i)));
+                        assertThat(expected).containsKey(scored.getModelVersion());
+                        assertThat(scored.getCareerProbabilities()).isEqualTo(expected.get(scored.getModelVersion()).get(i));
+                        scoredByVersion.merge(scored.getModelVersion(), 1, Integer::sum);
+                    }
+                    return scoredByVersion;
+                }));
+            }
+
+            for (int reload = 0; reload < RELOADS; reload++) {
+                Path source = reload % 2 == 0 ? bayesDir : treeDir;
+                Files.copy(source.resolve(LoadedModel.MODEL_FILE), servingDir.resolve(LoadedModel.MODEL_FILE),
+                        StandardCopyOption.REPLACE_EXISTING);
+                predictor.reload().join();
+                Thread.sleep(10);
+            }
+            reloading.set(false);
+
+            Map<String, Integer> scoredByVersion = new HashMap<>();
+            for (Future<Map<String, Integer>> scorer : scorers) {
+                scorer.get().forEach((version, count) -> scoredByVersion.merge(version, count, Integer::sum));
+            }
+            assertThat(scoredByVersion).containsOnlyKeys(expected.keySet());
+        } finally {
+            reloading.set(false);
+            executor.shutdown();
+        }
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "predictions").tag("result", result).functionCounter().count();
+    }
+
+    private static StudentProfile copyOf(StudentProfile profile) {
+        StudentProfile copy = new StudentProfile();
+        copy.setEducationLevel(profile.getEducationLevel());
+        copy.setOlResults(profile.getOlResults());
+        copy.setAlStream(profile.getAlStream());
+        copy.setAlResults(profile.getAlResults());
+        copy.setGpa(profile.getGpa());
+        return copy;
+    }
+
+    private static StudentProfile profile() {
+        return TestModels.randomProfiles(1, 7L).get(0);
+    }
+
+    private static Predictor predictor(Path dir, long cacheSize, MeterRegistry meterRegistry) throws Exception {
+        return TestModels.predictor(dir, meterRegistry).cacheSize(cacheSize).fallbackEnabled(false).build();
+    }
+}
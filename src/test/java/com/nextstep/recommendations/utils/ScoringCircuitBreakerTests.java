@@ -0,0 +1,195 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import weka.classifiers.AbstractClassifier;
+import weka.core.Instance;
+import weka.core.Instances;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoringCircuitBreakerTests {
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final Duration SLOW_CALL = Duration.ofMillis(30);
+    private static final Duration OPEN = Duration.ofMillis(100);
+
+    @TempDir
+    Path modelDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ScoringCircuitBreaker circuitBreaker =
+            new ScoringCircuitBreaker(FAILURE_THRESHOLD, SLOW_CALL, OPEN, meterRegistry);
+    private final List<StudentProfile> profiles = TestModels.randomProfiles(10, 7L);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StubClassifier.behaviour = Behaviour.ANSWER;
+        StubClassifier.calls.set(0);
+        TestModels.createModelDir(modelDir);
+        TestModels.writeModel(modelDir, new StubClassifier());
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndDivertsToTheHeuristic() throws Exception {
+        Predictor predictor = predictor(0);
+        StubClassifier.behaviour = Behaviour.THROW;
+
+        for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+            assertThat(predictor.updateCareerProbabilities(profiles.get(i)).getModelVersion()).isEqualTo(HeuristicScorer.VERSION);
+            assertThat(circuitBreaker.isOpen()).isFalse();
+        }
+        predictor.updateCareerProbabilities(profiles.get(FAILURE_THRESHOLD - 1));
+        assertThat(circuitBreaker.isOpen()).isTrue();
+
+        // While open, the model is not called at all
+        int calls = StubClassifier.calls.get();
+        assertThat(predictor.updateCareerProbabilities(profiles.get(FAILURE_THRESHOLD)).getModelVersion())
+                .isEqualTo(HeuristicScorer.VERSION);
+        assertThat(StubClassifier.calls.get()).isEqualTo(calls);
+        assertThat(meterRegistry.counter("predictor.fallback", "reason", "circuit_open").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void opensOnSlowCalls() throws Exception {
+        Predictor predictor = predictor(0);
+        StubClassifier.behaviour = Behaviour.SLOW;
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            // A slow answer is still served; it only counts against the model
+            assertThat(predictor.updateCareerProbabilities(profiles.get(i)).getModelVersion()).isNotEqualTo(HeuristicScorer.VERSION);
+        }
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+
+    @Test
+    void letsExactlyOneCallerThroughWhenHalfOpen() throws Exception {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            circuitBreaker.recordFailure();
+        }
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+
+        Thread.sleep(OPEN.toMillis() * 3 / 2);
+        AtomicInteger allowed = new AtomicInteger();
+        Thread[] callers = new Thread[8];
+        for (int i = 0; i < callers.length; i++) {
+            callers[i] = new Thread(() -> {
+                if (circuitBreaker.allowRequest()) {
+                    allowed.incrementAndGet();
+                }
+            });
+            callers[i].start();
+        }
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        assertThat(allowed.get()).isEqualTo(1);
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    void closesAfterASuccessfulTrial() throws Exception {
+        Predictor predictor = open(predictor(0));
+
+        StubClassifier.behaviour = Behaviour.ANSWER;
+        Thread.sleep(OPEN.toMillis() * 3 / 2);
+        assertThat(predictor.updateCareerProbabilities(profiles.get(0)).getModelVersion()).isNotEqualTo(HeuristicScorer.VERSION);
+
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    void reopensAfterAFailedTrial() throws Exception {
+        Predictor predictor = open(predictor(0));
+
+        Thread.sleep(OPEN.toMillis() * 3 / 2);
+        int calls = StubClassifier.calls.get();
+        assertThat(predictor.updateCareerProbabilities(profiles.get(0)).getModelVersion()).isEqualTo(HeuristicScorer.VERSION);
+
+        assertThat(StubClassifier.calls.get()).isEqualTo(calls + 1);
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        // The open duration starts over from the failed trial
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    void aHalfOpenTrialReachesTheModelEvenWhenThePredictionIsCached() throws Exception {
+        Predictor predictor = predictor(100);
+        StudentProfile cached = profiles.get(0);
+        predictor.updateCareerProbabilities(cached);
+
+        // The model breaks on profiles it has not seen; the cached one would still be answered from the cache
+        open(predictor);
+        Thread.sleep(OPEN.toMillis() * 3 / 2);
+        int calls = StubClassifier.calls.get();
+        predictor.updateCareerProbabilities(cached);
+
+        assertThat(StubClassifier.calls.get()).isEqualTo(calls + 1);
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+
+    @Test
+    void cacheHitsDoNotResetTheFailureCount() throws Exception {
+        Predictor predictor = predictor(100);
+        StudentProfile cached = profiles.get(0);
+        predictor.updateCareerProbabilities(cached);
+
+        StubClassifier.behaviour = Behaviour.THROW;
+        for (int i = 1; i < FAILURE_THRESHOLD; i++) {
+            predictor.updateCareerProbabilities(profiles.get(i));
+            predictor.updateCareerProbabilities(cached);
+        }
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        predictor.updateCareerProbabilities(profiles.get(FAILURE_THRESHOLD));
+
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+
+    // Opens the breaker with failing calls on profiles the tests do not score afterwards
+    private Predictor open(Predictor predictor) throws Exception {
+        StubClassifier.behaviour = Behaviour.THROW;
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            predictor.updateCareerProbabilities(profiles.get(profiles.size() - 1 - i));
+        }
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        return predictor;
+    }
+
+    private Predictor predictor(long cacheSize) throws Exception {
+        return TestModels.predictor(modelDir, meterRegistry).cacheSize(cacheSize).circuitBreaker(circuitBreaker).build();
+    }
+
+    enum Behaviour { ANSWER, THROW, SLOW }
+
+    // Replicas are deserialized copies, so the behaviour and call count are shared statics
+    static final class StubClassifier extends AbstractClassifier {
+        static volatile Behaviour behaviour = Behaviour.ANSWER;
+        static final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public void buildClassifier(Instances data) {
+        }
+
+        @Override
+        public double[] distributionForInstance(Instance instance) throws Exception {
+            calls.incrementAndGet();
+            switch (behaviour) {
+                case THROW -> throw new IllegalStateException("model unavailable");
+                case SLOW -> Thread.sleep(SLOW_CALL.toMillis() * 2);
+                default -> {
+                }
+            }
+            double[] distribution = new double[instance.numClasses()];
+            distribution[0] = 1.0;
+            return distribution;
+        }
+    }
+}
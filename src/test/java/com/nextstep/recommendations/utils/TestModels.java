@@ -0,0 +1,158 @@
+package com.nextstep.recommendations.utils;
+
+import com.nextstep.recommendations.model.StudentProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import weka.classifiers.Classifier;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.converters.ConverterUtils.DataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+public final class TestModels {
+
+    private TestModels() {}
+
+    // A Predictor over the directory with the application's defaults, except one idle replica and no prediction
+    // cache; tests override only the arguments they exercise
+    public static PredictorFixture predictor(Path dir, MeterRegistry meterRegistry) {
+        return new PredictorFixture(dir, meterRegistry);
+    }
+
+    // The repository does not ship career_prediction.model, so tests train a small tree on features.arff
+    public static Path createModelDir(Path dir) throws Exception {
+        writeModel(dir, new J48());
+        Files.copy(Path.of("models/features.arff"), dir.resolve("features.arff"));
+        return dir;
+    }
+
+    // Trains the classifier on features.arff and writes it over the directory's default model
+    static void writeModel(Path dir, Classifier classifier) throws Exception {
+        Instances data = DataSource.read("models/features.arff");
+        data.setClassIndex(data.numAttributes() - 1);
+        classifier.buildClassifier(data);
+        SerializationHelper.write(dir.resolve(LoadedModel.MODEL_FILE).toString(), classifier);
+    }
+
+    // A specialized model over the columns whose names start with one of the prefixes, plus the career class
+    static void createRoutedModel(Path file, String... attributePrefixes) throws Exception {
+        Instances data = DataSource.read("models/features.arff");
+        for (int i = data.numAttributes() - 2; i >= 0; i--) {
+            String name = data.attribute(i).name();
+            boolean keep = false;
+            for (String prefix : attributePrefixes) {
+                keep |= name.startsWith(prefix);
+            }
+            if (!keep) {
+                data.deleteAttributeAt(i);
+            }
+        }
+        data.setClassIndex(data.numAttributes() - 1);
+
+        Classifier classifier = new J48();
+        classifier.buildClassifier(data);
+
+        String name = file.getFileName().toString().replace(".model", "");
+        SerializationHelper.write(file.toString(), classifier);
+        SerializationHelper.write(file.resolveSibling(name + ModelRouter.SCHEMA_EXTENSION).toString(), new Instances(data, 0));
+    }
+
+    static List<StudentProfile> randomProfiles(int count, long seed) {
+        Random random = new Random(seed);
+        List<StudentProfile> profiles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StudentProfile profile = new StudentProfile();
+            profile.setEducationLevel(random.nextInt(3));
+
+            Map<String, Double> olResults = new HashMap<>();
+            for (int subject = 0; subject < 6; subject++) {
+                olResults.put(String.valueOf(subject), (double) random.nextInt(5));
+            }
+            profile.setOlResults(olResults);
+
+            if (profile.getEducationLevel() > 0) {
+                profile.setAlStream(6 + random.nextInt(4));
+                Map<String, Double> alResults = new HashMap<>();
+                for (int subject = 0; subject < 3; subject++) {
+                    alResults.put(String.valueOf(random.nextInt(13)), (double) random.nextInt(5));
+                }
+                profile.setAlResults(alResults);
+            }
+            if (profile.getEducationLevel() == 2) {
+                profile.setGpa(2.7 + random.nextDouble() * 1.3);
+            }
+            profiles.add(profile);
+        }
+        return profiles;
+    }
+
+    public static final class PredictorFixture {
+        private final Path dir;
+        private final MeterRegistry meterRegistry;
+        private int maxIdleReplicas = 1;
+        private long cacheSize;
+        private ScoringCircuitBreaker circuitBreaker;
+        private Optional<ModelRouter> modelRouter = Optional.empty();
+        private boolean fallbackEnabled = true;
+        private int topK;
+        private PredictionMetrics predictionMetrics;
+
+        private PredictorFixture(Path dir, MeterRegistry meterRegistry) {
+            this.dir = dir;
+            this.meterRegistry = meterRegistry;
+        }
+
+        public PredictorFixture maxIdleReplicas(int maxIdleReplicas) {
+            this.maxIdleReplicas = maxIdleReplicas;
+            return this;
+        }
+
+        public PredictorFixture cacheSize(long cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public PredictorFixture circuitBreaker(ScoringCircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        public PredictorFixture modelRouter(ModelRouter modelRouter) {
+            this.modelRouter = Optional.of(modelRouter);
+            return this;
+        }
+
+        public PredictorFixture fallbackEnabled(boolean fallbackEnabled) {
+            this.fallbackEnabled = fallbackEnabled;
+            return this;
+        }
+
+        public PredictorFixture topK(int topK) {
+            this.topK = topK;
+            return this;
+        }
+
+        public PredictorFixture predictionMetrics(PredictionMetrics predictionMetrics) {
+            this.predictionMetrics = predictionMetrics;
+            return this;
+        }
+
+        public Predictor build() throws Exception {
+            return new Predictor(dir + "/", maxIdleReplicas, new PredictionCache(cacheSize, meterRegistry),
+                    new HeuristicScorer(),
+                    circuitBreaker != null ? circuitBreaker
+                            : new ScoringCircuitBreaker(5, Duration.ofMillis(250), Duration.ofSeconds(30), meterRegistry),
+                    modelRouter, fallbackEnabled, topK,
+                    predictionMetrics != null ? predictionMetrics : new PredictionMetrics(meterRegistry), meterRegistry);
+        }
+    }
+}